@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert.benchmark;
+
+import io.github.agebhar1.micrometer.security.cert.CustomGlobalTrustStoreX509Certificates;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateGenerator;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateGenerator.Format;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CustomGlobalTrustStoreBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    int count;
+
+    @Param({"JKS", "PKCS12"})
+    String type;
+
+    private final CustomGlobalTrustStoreX509Certificates source = new CustomGlobalTrustStoreX509Certificates();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Path trustStore = X509CertificateGenerator.builder().count(count).write(Format.valueOf(type));
+
+        System.setProperty("javax.net.ssl.trustStore", trustStore.toString());
+        System.setProperty("javax.net.ssl.trustStorePassword", X509CertificateGenerator.Password);
+        System.setProperty("javax.net.ssl.trustStoreType", type);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.clearProperty("javax.net.ssl.trustStore");
+        System.clearProperty("javax.net.ssl.trustStorePassword");
+        System.clearProperty("javax.net.ssl.trustStoreType");
+    }
+
+    @Benchmark
+    public Collection<X509Certificate> readAllCertificates() {
+        return source.readAllCertificates();
+    }
+
+    @Benchmark
+    public void forEachCertificate(final Blackhole blackhole) {
+        source.forEachCertificate(blackhole::consume);
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert.benchmark;
+
+import io.github.agebhar1.micrometer.security.cert.MappedPemBundleX509CertificateSource;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateGenerator;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateGenerator.Format;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PemBundleBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int count;
+
+    private Path bundle;
+    private MappedPemBundleX509CertificateSource sequential;
+    private MappedPemBundleX509CertificateSource parallel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        bundle = X509CertificateGenerator.builder().count(count).write(Format.PEM);
+        sequential = new MappedPemBundleX509CertificateSource(bundle);
+        parallel = new MappedPemBundleX509CertificateSource(bundle, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Collection<? extends Certificate> certificateFactory() throws IOException, GeneralSecurityException {
+        try (InputStream stream = Files.newInputStream(bundle)) {
+            return CertificateFactory.getInstance("X.509").generateCertificates(stream);
+        }
+    }
+
+    @Benchmark
+    public void mappedSequential(final Blackhole blackhole) {
+        sequential.forEachCertificate(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mappedForkJoin(final Blackhole blackhole) {
+        parallel.forEachCertificate(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mappedSummarySequential(final Blackhole blackhole) {
+        sequential.forEachCertificateSummary(summary -> blackhole.consume(summary.getSubjectX500Principal().toString()));
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert.benchmark;
+
+import io.github.agebhar1.micrometer.security.cert.DefaultX509CertificateMetricTagFactory;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateExpirationMetrics;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateGenerator;
+import io.github.agebhar1.micrometer.security.cert.X509CertificateSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class X509CertificateExpirationMetricsBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    int count;
+
+    private X509CertificateSource source;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final List<X509Certificate> certificates = X509CertificateGenerator.generate(count);
+        source = () -> certificates;
+    }
+
+    @State(Scope.Thread)
+    public static class Unbound {
+
+        private X509CertificateExpirationMetrics metrics;
+
+        @Setup(Level.Invocation)
+        public void setup(final X509CertificateExpirationMetricsBenchmark benchmark) {
+            metrics = new X509CertificateExpirationMetrics(new DefaultX509CertificateMetricTagFactory(), benchmark.source);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            metrics.close();
+            metrics = null;
+        }
+
+    }
+
+    // a fresh tag factory per invocation, otherwise its tag cache is warm after the first invocation
+    @Benchmark
+    public X509CertificateExpirationMetrics construct() {
+        return new X509CertificateExpirationMetrics(new DefaultX509CertificateMetricTagFactory(), source);
+    }
+
+    @Benchmark
+    public MeterRegistry bindToSimpleMeterRegistry(final Unbound unbound) {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        unbound.metrics.bindTo(registry);
+        return registry;
+    }
+
+    @Benchmark
+    public MeterRegistry bindToPrometheusMeterRegistry(final Unbound unbound) {
+        final MeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        unbound.metrics.bindTo(registry);
+        return registry;
+    }
+
+}
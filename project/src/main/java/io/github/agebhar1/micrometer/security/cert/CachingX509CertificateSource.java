@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.Clock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+public class CachingX509CertificateSource implements X509CertificateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingX509CertificateSource.class);
+
+    private static final Executor RevalidationThread = command -> {
+        final Thread thread = new Thread(command, "x509-certificate-revalidation");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private final X509CertificateSource source;
+    private final long timeToLiveNanos;
+    private final long maxStaleNanos;
+    private final Executor executor;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    private Loaded loaded;
+    private CompletableFuture<Loaded> loading;
+
+    public CachingX509CertificateSource(final X509CertificateSource source, final Duration timeToLive) {
+        this(source, timeToLive, RevalidationThread);
+    }
+
+    public CachingX509CertificateSource(final X509CertificateSource source, final Duration timeToLive, final Executor executor) {
+        this(source, timeToLive, null, executor, Clock.SYSTEM);
+    }
+
+    public CachingX509CertificateSource(final X509CertificateSource source, final Duration timeToLive, final Duration maxStale, final Executor executor) {
+        this(source, timeToLive, maxStale, executor, Clock.SYSTEM);
+    }
+
+    CachingX509CertificateSource(final X509CertificateSource source, final Duration timeToLive, final Duration maxStale, final Executor executor, final Clock clock) {
+        if (source == null) {
+            throw new IllegalArgumentException("Certificates source must not be null.");
+        }
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive.");
+        }
+        if (maxStale != null && maxStale.compareTo(timeToLive) < 0) {
+            throw new IllegalArgumentException("Max staleness must not be less than time to live.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null.");
+        }
+        this.source = source;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.maxStaleNanos = maxStale == null ? Long.MAX_VALUE : maxStale.toNanos();
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        return read().certificates();
+    }
+
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+        readAllCertificates().forEach(action);
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        read().summaries().forEach(action);
+    }
+
+    private LoadedX509Certificates read() {
+
+        final CompletableFuture<Loaded> pending;
+        final boolean owner;
+        synchronized (lock) {
+            final long now = clock.monotonicTime();
+            if (loaded != null && now - loaded.at < maxStaleNanos) {
+                if (now - loaded.revalidateAt >= 0 && loading == null) {
+                    revalidate();
+                }
+                return loaded.certificates;
+            }
+            owner = loading == null;
+            if (owner) {
+                loading = new CompletableFuture<>();
+            }
+            pending = loading;
+        }
+
+        if (owner) {
+            try {
+                final Loaded result = load();
+                synchronized (lock) {
+                    loaded = result;
+                    loading = null;
+                }
+                pending.complete(result);
+            } catch (final RuntimeException e) {
+                synchronized (lock) {
+                    loading = null;
+                }
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return pending.join().certificates;
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void revalidate() {
+        logger.debug("Cached X509 certificates are stale, revalidate in background");
+        loading = CompletableFuture.supplyAsync(this::load, executor);
+        loading.whenComplete((result, e) -> {
+            synchronized (lock) {
+                if (e == null) {
+                    loaded = result;
+                } else {
+                    logger.warn("Failed to revalidate X509 certificates, keep serving stale certificates and retry after time to live.", e);
+                    loaded = loaded.retryAt(clock.monotonicTime() + timeToLiveNanos);
+                }
+                loading = null;
+            }
+        });
+    }
+
+    private Loaded load() {
+        final LoadedX509Certificates certificates = LoadedX509Certificates.load(source);
+        final long now = clock.monotonicTime();
+        return new Loaded(now, now + timeToLiveNanos, certificates);
+    }
+
+    private static final class Loaded {
+
+        private final long at;
+        private final long revalidateAt;
+        private final LoadedX509Certificates certificates;
+
+        private Loaded(final long at, final long revalidateAt, final LoadedX509Certificates certificates) {
+            this.at = at;
+            this.revalidateAt = revalidateAt;
+            this.certificates = certificates;
+        }
+
+        private Loaded retryAt(final long revalidateAt) {
+            return new Loaded(at, revalidateAt, certificates);
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+
+final class CertificateFingerprint {
+
+    private final long h0;
+    private final long h1;
+    private final long h2;
+    private final long h3;
+
+    private CertificateFingerprint(final byte[] sha256) {
+        final ByteBuffer buffer = ByteBuffer.wrap(sha256);
+        h0 = buffer.getLong();
+        h1 = buffer.getLong();
+        h2 = buffer.getLong();
+        h3 = buffer.getLong();
+    }
+
+    static CertificateFingerprint of(final X509Certificate certificate) {
+        try {
+            return of(certificate.getEncoded());
+        } catch (final CertificateEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static CertificateFingerprint of(final X509CertificateSummary summary) {
+        final byte[] encoded = summary.getEncoded();
+        return encoded != null ? of(encoded) : of(summary.toX509Certificate());
+    }
+
+    private static CertificateFingerprint of(final byte[] encoded) {
+        try {
+            return new CertificateFingerprint(MessageDigest.getInstance("SHA-256").digest(encoded));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CertificateFingerprint that = (CertificateFingerprint) o;
+        return h0 == that.h0 && h1 == that.h1 && h2 == that.h2 && h3 == that.h3;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(h0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x%016x%016x", h0, h1, h2, h3);
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public class ChangeDetectingX509CertificateSource implements X509CertificateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeDetectingX509CertificateSource.class);
+
+    private final Path file;
+    private final X509CertificateSource source;
+    private final boolean contentDigest;
+
+    private FileFingerprint fingerprint;
+    private byte[] digest;
+    private LoadedX509Certificates loaded;
+
+    public ChangeDetectingX509CertificateSource(final Path file, final X509CertificateSource source) {
+        this(file, source, false);
+    }
+
+    public ChangeDetectingX509CertificateSource(final Path file, final X509CertificateSource source, final boolean contentDigest) {
+
+        if (file == null) {
+            throw new IllegalArgumentException("File must not be null.");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Certificates source must not be null.");
+        }
+
+        this.file = file;
+        this.source = source;
+        this.contentDigest = contentDigest;
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        return load().certificates();
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        load().summaries().forEach(action);
+    }
+
+    private synchronized LoadedX509Certificates load() {
+
+        final FileFingerprint current = FileFingerprint.of(file);
+        if (current.isAbsent()) {
+            loaded = null;
+            return LoadedX509Certificates.load(source);
+        }
+        if (loaded != null && current.equals(fingerprint)) {
+            logger.trace("File '{}' is unchanged, skip loading X509 certificates", file);
+            return loaded;
+        }
+
+        final byte[] currentDigest = contentDigest ? digestOf(file) : null;
+        if (loaded != null && currentDigest != null && Arrays.equals(currentDigest, digest)) {
+            logger.trace("Content of file '{}' is unchanged, skip loading X509 certificates", file);
+            fingerprint = current;
+            return loaded;
+        }
+
+        logger.debug("File '{}' has changed, load X509 certificates", file);
+        final LoadedX509Certificates next = LoadedX509Certificates.load(source);
+
+        fingerprint = current;
+        digest = currentDigest;
+        loaded = next;
+        return loaded;
+    }
+
+    private static byte[] digestOf(final Path file) {
+        try (InputStream stream = Files.newInputStream(file)) {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+            return messageDigest.digest();
+        } catch (final IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
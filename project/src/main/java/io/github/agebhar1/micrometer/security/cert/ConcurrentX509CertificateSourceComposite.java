@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static io.github.agebhar1.micrometer.security.cert.X509CertificateSourceComposite.asCollectionIfNoneNull;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.function.Function.identity;
+
+public class ConcurrentX509CertificateSourceComposite implements X509CertificateSource {
+
+    private static final long NotStarted = Long.MIN_VALUE;
+
+    private final Collection<X509CertificateSource> sources;
+    private final Executor executor;
+    private final long sourceTimeoutNanos;
+    private final long timeoutNanos;
+
+    private ConcurrentX509CertificateSourceComposite(final Executor executor, final Duration sourceTimeout, final Duration timeout, final Collection<X509CertificateSource> sources) {
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null.");
+        }
+        if (sourceTimeout == null || sourceTimeout.isNegative() || sourceTimeout.isZero()) {
+            throw new IllegalArgumentException("Timeout of a single X509Certificate source must be positive.");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+
+        this.sources = sources;
+        this.executor = executor;
+        this.sourceTimeoutNanos = sourceTimeout.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        return collect(X509CertificateSource::readAllCertificates);
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        collect(source -> {
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            source.forEachCertificateSummary(summaries::add);
+            return summaries;
+        }).forEach(action);
+    }
+
+    private <T> List<T> collect(final Function<X509CertificateSource, Collection<T>> read) {
+
+        final long deadline = System.nanoTime() + timeoutNanos;
+        final CompletionService<Collection<T>> completionService = new ExecutorCompletionService<>(executor);
+        final Map<Future<Collection<T>>, Pending> pending = new IdentityHashMap<>();
+
+        final List<T> collected = new ArrayList<>();
+        try {
+            for (final X509CertificateSource source : sources) {
+                final Pending it = new Pending(source);
+                pending.put(completionService.submit(() -> it.read(read)), it);
+            }
+
+            while (!pending.isEmpty()) {
+
+                final long now = System.nanoTime();
+                long next = Math.min(deadline, now + sourceTimeoutNanos);
+                for (final Pending it : pending.values()) {
+                    final long startedAt = it.startedAt.get();
+                    if (startedAt != NotStarted && startedAt + sourceTimeoutNanos - now <= 0) {
+                        throw new TimeoutException(format("X509Certificate source '%s' did not complete within %s", it.source, Duration.ofNanos(sourceTimeoutNanos)));
+                    }
+                    if (startedAt != NotStarted) {
+                        next = Math.min(next, startedAt + sourceTimeoutNanos);
+                    }
+                }
+                if (deadline - now <= 0) {
+                    throw new TimeoutException(format("X509Certificate sources did not complete within %s", Duration.ofNanos(timeoutNanos)));
+                }
+
+                final Future<Collection<T>> completed = completionService.poll(next - now, NANOSECONDS);
+                if (completed != null) {
+                    pending.remove(completed);
+                    final Collection<T> result = completed.get();
+                    if (result == null) {
+                        throw new IllegalArgumentException("Collection of certificates must not be null.");
+                    }
+                    collected.addAll(result);
+                }
+            }
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (final TimeoutException e) {
+            throw new RuntimeException(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            pending.keySet().forEach(future -> future.cancel(true));
+        }
+
+        return collected;
+    }
+
+    public static X509CertificateSource of(final Executor executor, final Duration sourceTimeout, final Duration timeout, final X509CertificateSource... sources) {
+        return new ConcurrentX509CertificateSourceComposite(executor, sourceTimeout, timeout, asCollectionIfNoneNull(sources, Arrays::asList));
+    }
+
+    public static X509CertificateSource of(final Executor executor, final Duration sourceTimeout, final Duration timeout, final Collection<X509CertificateSource> sources) {
+        return new ConcurrentX509CertificateSourceComposite(executor, sourceTimeout, timeout, asCollectionIfNoneNull(sources, identity()));
+    }
+
+    private static final class Pending {
+
+        private final X509CertificateSource source;
+        private final AtomicLong startedAt = new AtomicLong(NotStarted);
+
+        private Pending(final X509CertificateSource source) {
+            this.source = source;
+        }
+
+        private <T> Collection<T> read(final Function<X509CertificateSource, Collection<T>> read) {
+            startedAt.set(System.nanoTime());
+            return read.apply(source);
+        }
+
+    }
+
+}
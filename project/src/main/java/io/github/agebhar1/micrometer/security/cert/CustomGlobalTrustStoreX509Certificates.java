@@ -29,13 +29,12 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
-import static java.util.Collections.emptyList;
-import static java.util.Collections.list;
-
 public class CustomGlobalTrustStoreX509Certificates implements X509CertificateSource {
 
     private static final Predicate<Certificate> isX509Certificate = it -> X509Certificate.class.isAssignableFrom(it.getClass());
@@ -43,6 +42,13 @@ public class CustomGlobalTrustStoreX509Certificates implements X509CertificateSo
 
     @Override
     public Collection<X509Certificate> readAllCertificates() {
+        final List<X509Certificate> x509Certificates = new ArrayList<>();
+        forEachCertificate(x509Certificates::add);
+        return x509Certificates;
+    }
+
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
 
         final String trustStore = System.getProperty("javax.net.ssl.trustStore");
         final String trustStorePassword = System.getProperty("javax.net.ssl.trustStorePassword");
@@ -52,18 +58,17 @@ public class CustomGlobalTrustStoreX509Certificates implements X509CertificateSo
                 trustStore, trustStorePassword == null || trustStorePassword.trim().isEmpty() ? "<no>" : "<yes>", trustStoreType);
 
         if (trustStore == null || trustStore.trim().isEmpty()) {
-            return emptyList();
+            return;
         }
         if (trustStorePassword == null || trustStorePassword.trim().isEmpty()) {
-            return emptyList();
+            return;
         }
 
-        return getX509Certificates(trustStore, trustStorePassword, trustStoreType);
+        forEachX509Certificate(trustStore, trustStorePassword, trustStoreType, action);
     }
 
-    private List<X509Certificate> getX509Certificates(final String trustStore, final String trustStorePassword, final String trustStoreType) {
+    private void forEachX509Certificate(final String trustStore, final String trustStorePassword, final String trustStoreType, final Consumer<? super X509Certificate> action) {
 
-        final List<X509Certificate> x509Certificates = new ArrayList<>();
         try {
 
             final KeyStore keyStore = KeyStore.getInstance(trustStoreType);
@@ -71,20 +76,20 @@ public class CustomGlobalTrustStoreX509Certificates implements X509CertificateSo
                 keyStore.load(stream, trustStorePassword.toCharArray());
             }
 
-            for (final String alias : list(keyStore.aliases())) {
-                Optional.of(keyStore.getCertificate(alias))
+            final Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                Optional.ofNullable(keyStore.getCertificate(aliases.nextElement()))
                         .filter(isX509Certificate)
                         .map(X509Certificate.class::cast)
                         .ifPresent(certificate -> {
                             logger.trace("Add certificate '{}' from javax.net.ssl.trustStore: '{}'", certificate.getSubjectDN().getName(), trustStore);
-                            x509Certificates.add(certificate);
+                            action.accept(certificate);
                         });
             }
 
         } catch (final KeyStoreException | IOException | CertificateException | NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
-        return x509Certificates;
     }
 
 }
@@ -16,13 +16,44 @@
 package io.github.agebhar1.micrometer.security.cert;
 
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 
+import javax.security.auth.x500.X500Principal;
 import java.security.cert.X509Certificate;
-
-import static java.util.Collections.singletonList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class DefaultX509CertificateMetricTagFactory implements X509CertificateMetricTagFactory {
 
+    public static final int DefaultMaximumCacheSize = 10_000;
+
+    private final int maximumCacheSize;
+    private final Map<EncodedName, Tags> cache;
+
+    public DefaultX509CertificateMetricTagFactory() {
+        this(DefaultMaximumCacheSize);
+    }
+
+    public DefaultX509CertificateMetricTagFactory(final int maximumCacheSize) {
+
+        if (maximumCacheSize < 0) {
+            throw new IllegalArgumentException("Maximum cache size must not be negative.");
+        }
+
+        this.maximumCacheSize = maximumCacheSize;
+        this.cache = new LinkedHashMap<EncodedName, Tags>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<EncodedName, Tags> eldest) {
+                return size() > DefaultX509CertificateMetricTagFactory.this.maximumCacheSize;
+            }
+
+        };
+    }
+
     @Override
     public Iterable<Tag> buildTagsFrom(final X509Certificate certificate) {
 
@@ -30,7 +61,63 @@ public class DefaultX509CertificateMetricTagFactory implements X509CertificateMe
             throw new IllegalArgumentException("Certificate must not be null.");
         }
 
-        return singletonList(Tag.of("subjectDN", certificate.getSubjectDN().getName()));
+        final X500Principal subject = certificate.getSubjectX500Principal();
+        return tagsOf(new EncodedName(subject.getEncoded()), subject);
+    }
+
+    @Override
+    public Iterable<Tag> buildTagsFromSummary(final X509CertificateSummary summary) {
+
+        if (summary == null) {
+            throw new IllegalArgumentException("Certificate summary must not be null.");
+        }
+
+        return tagsOf(new EncodedName(summary.getEncodedSubject()), null);
+    }
+
+    private Tags tagsOf(final EncodedName subject, final X500Principal principal) {
+
+        if (maximumCacheSize == 0) {
+            return build(subject, principal);
+        }
+
+        synchronized (cache) {
+            final Tags cached = cache.get(subject);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final Tags tags = build(subject, principal);
+        synchronized (cache) {
+            final Tags cached = cache.putIfAbsent(subject, tags);
+            return cached != null ? cached : tags;
+        }
+    }
+
+    private static Tags build(final EncodedName subject, final X500Principal principal) {
+        return Tags.of(Tag.of("subjectDN", (principal != null ? principal : new X500Principal(subject.encoded)).toString()));
+    }
+
+    private static final class EncodedName {
+
+        private final byte[] encoded;
+        private final int hashCode;
+
+        private EncodedName(final byte[] encoded) {
+            this.encoded = encoded;
+            this.hashCode = Arrays.hashCode(encoded);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return this == o || o instanceof EncodedName && Arrays.equals(encoded, ((EncodedName) o).encoded);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
     }
 
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+final class DerReader {
+
+    static final int SequenceTag = 0x30;
+    static final int SetTag = 0x31;
+    static final int IntegerTag = 0x02;
+    static final int ObjectIdentifierTag = 0x06;
+    static final int VersionTag = 0xa0;
+    static final int UtcTimeTag = 0x17;
+    static final int GeneralizedTimeTag = 0x18;
+
+    private final byte[] der;
+    private final int end;
+    private int position;
+
+    DerReader(final byte[] der) {
+        this(der, 0, der.length);
+    }
+
+    private DerReader(final byte[] der, final int position, final int end) {
+        this.der = der;
+        this.position = position;
+        this.end = end;
+    }
+
+    boolean hasRemaining() {
+        return position < end;
+    }
+
+    int peek() {
+        if (position >= end) {
+            throw new IllegalStateException("Unexpected end of DER encoded element at offset " + position);
+        }
+        return der[position] & 0xff;
+    }
+
+    DerReader expect(final int tag) {
+        if (peek() != tag) {
+            throw new IllegalStateException(String.format("Expected DER tag 0x%02x but was 0x%02x at offset %d", tag, peek(), position));
+        }
+        return this;
+    }
+
+    private int contentEnd(final int contentStart, final int length) {
+        if (length < 0 || contentStart + length > end) {
+            throw new IllegalStateException("Invalid DER length at offset " + position);
+        }
+        return contentStart + length;
+    }
+
+    private int[] header() {
+        int index = position + 1;
+        int length = der[index++] & 0xff;
+        if (length > 0x80) {
+            final int bytes = length & 0x7f;
+            if (bytes > 3) {
+                throw new IllegalStateException("Unsupported DER length at offset " + position);
+            }
+            length = 0;
+            for (int i = 0; i < bytes; i++) {
+                length = length << 8 | der[index++] & 0xff;
+            }
+        } else if (length == 0x80) {
+            throw new IllegalStateException("Indefinite DER length at offset " + position);
+        }
+        return new int[]{index, contentEnd(index, length)};
+    }
+
+    int[] element() {
+        peek();
+        final int start = position;
+        position = header()[1];
+        return new int[]{start, position};
+    }
+
+    void skip() {
+        element();
+    }
+
+    DerReader enter(final int tag) {
+        expect(tag);
+        final int[] header = header();
+        position = header[1];
+        return new DerReader(der, header[0], header[1]);
+    }
+
+    byte[] content(final int tag) {
+        expect(tag);
+        final int[] header = header();
+        position = header[1];
+        return Arrays.copyOfRange(der, header[0], header[1]);
+    }
+
+    int[] value() {
+        final int tag = peek();
+        final int[] header = header();
+        position = header[1];
+        return new int[]{tag, header[0], header[1]};
+    }
+
+    Instant time() {
+        final int tag = peek();
+        final int[] header = header();
+        position = header[1];
+
+        final int start = header[0];
+        final int year;
+        final int offset;
+        if (tag == UtcTimeTag && header[1] - start == 13) {
+            final int yy = digits(start, 2);
+            year = yy >= 50 ? 1900 + yy : 2000 + yy;
+            offset = start + 2;
+        } else if (tag == GeneralizedTimeTag && header[1] - start == 15) {
+            year = digits(start, 4);
+            offset = start + 4;
+        } else {
+            throw new IllegalStateException("Unsupported DER time encoding at offset " + (start - 2));
+        }
+        if (der[header[1] - 1] != 'Z') {
+            throw new IllegalStateException("DER time must be UTC at offset " + (start - 2));
+        }
+        return LocalDateTime.of(year, digits(offset, 2), digits(offset + 2, 2), digits(offset + 4, 2), digits(offset + 6, 2), digits(offset + 8, 2))
+                .toInstant(ZoneOffset.UTC);
+    }
+
+    private int digits(final int from, final int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            final int digit = der[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalStateException("Invalid digit in DER time at offset " + i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class DistinctX509CertificateSource implements X509CertificateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistinctX509CertificateSource.class);
+
+    private final X509CertificateSource source;
+
+    public DistinctX509CertificateSource(final X509CertificateSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Certificates source must not be null.");
+        }
+        this.source = source;
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        final List<X509Certificate> certificates = new ArrayList<>();
+        forEachCertificate(certificates::add);
+        return certificates;
+    }
+
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+
+        final Set<CertificateFingerprint> seen = new HashSet<>();
+        final AtomicInteger duplicates = new AtomicInteger();
+
+        source.forEachCertificate(certificate -> {
+            if (certificate == null) {
+                return;
+            }
+            if (seen.add(CertificateFingerprint.of(certificate))) {
+                action.accept(certificate);
+            } else {
+                logger.trace("Skip duplicate certificate '{}'", certificate.getSubjectX500Principal().getName());
+                duplicates.incrementAndGet();
+            }
+        });
+
+        logger.debug("Skipped {} duplicates of {} certificates", duplicates.get(), seen.size() + duplicates.get());
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+
+        final Set<CertificateFingerprint> seen = new HashSet<>();
+        final AtomicInteger duplicates = new AtomicInteger();
+
+        source.forEachCertificateSummary(summary -> {
+            if (summary == null) {
+                return;
+            }
+            if (seen.add(CertificateFingerprint.of(summary))) {
+                action.accept(summary);
+            } else {
+                logger.trace("Skip duplicate certificate {}", summary);
+                duplicates.incrementAndGet();
+            }
+        });
+
+        logger.debug("Skipped {} duplicates of {} certificates", duplicates.get(), seen.size() + duplicates.get());
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.Clock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public class FaultTolerantX509CertificateSource implements X509CertificateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultTolerantX509CertificateSource.class);
+
+    private final X509CertificateSource source;
+    private final int failureThreshold;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Clock clock;
+
+    private LoadedX509Certificates lastGood = LoadedX509Certificates.Empty;
+    private int failures;
+    private long nextAttempt;
+
+    public FaultTolerantX509CertificateSource(final X509CertificateSource source) {
+        this(builder(source));
+    }
+
+    private FaultTolerantX509CertificateSource(final Builder builder) {
+        if (builder.source == null) {
+            throw new IllegalArgumentException("Certificates source must not be null.");
+        }
+        this.source = builder.source;
+        this.failureThreshold = builder.failureThreshold;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.clock = builder.clock;
+    }
+
+    public static Builder builder(final X509CertificateSource source) {
+        return new Builder(source);
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        return read().certificates();
+    }
+
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+        readAllCertificates().forEach(action);
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        read().summaries().forEach(action);
+    }
+
+    private synchronized LoadedX509Certificates read() {
+
+        if (isOpen() && clock.monotonicTime() - nextAttempt < 0) {
+            logger.trace("Circuit of certificates source is open, serve last good result");
+            return lastGood;
+        }
+
+        try {
+            lastGood = LoadedX509Certificates.load(source);
+            if (failures > 0) {
+                logger.info("Certificates source recovered after {} failures", failures);
+            }
+            failures = 0;
+        } catch (final RuntimeException e) {
+            failures++;
+            if (isOpen()) {
+                final long backoff = backoff(failures - failureThreshold);
+                nextAttempt = clock.monotonicTime() + backoff;
+                logger.warn("Failed to read certificates source ({} consecutive failures), serve last good result and retry in {}.",
+                        failures, Duration.ofNanos(backoff), e);
+            } else {
+                logger.warn("Failed to read certificates source ({} consecutive failures), serve last good result.", failures, e);
+            }
+        }
+        return lastGood;
+    }
+
+    private boolean isOpen() {
+        return failures >= failureThreshold;
+    }
+
+    private long backoff(final int exponent) {
+        if (exponent >= Long.numberOfLeadingZeros(initialBackoffNanos) - 1) {
+            return maxBackoffNanos;
+        }
+        return Math.min(initialBackoffNanos << exponent, maxBackoffNanos);
+    }
+
+    public static final class Builder {
+
+        private final X509CertificateSource source;
+        private int failureThreshold = 3;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofMinutes(5);
+        private Clock clock = Clock.SYSTEM;
+
+        private Builder(final X509CertificateSource source) {
+            this.source = source;
+        }
+
+        public Builder failureThreshold(final int failureThreshold) {
+            if (failureThreshold <= 0) {
+                throw new IllegalArgumentException("Failure threshold must be positive.");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        public Builder backoff(final Duration initialBackoff, final Duration maxBackoff) {
+            if (initialBackoff == null || initialBackoff.isNegative() || initialBackoff.isZero()) {
+                throw new IllegalArgumentException("Initial backoff must be positive.");
+            }
+            if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+                throw new IllegalArgumentException("Maximum backoff must not be less than initial backoff.");
+            }
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        Builder clock(final Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public FaultTolerantX509CertificateSource build() {
+            return new FaultTolerantX509CertificateSource(this);
+        }
+
+    }
+
+}
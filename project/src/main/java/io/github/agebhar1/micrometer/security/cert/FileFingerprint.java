@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+final class FileFingerprint {
+
+    private static final FileFingerprint Absent = new FileFingerprint(null, null, -1, -1);
+
+    private final Path realPath;
+    private final Object fileKey;
+    private final long lastModified;
+    private final long size;
+
+    private FileFingerprint(final Path realPath, final Object fileKey, final long lastModified, final long size) {
+        this.realPath = realPath;
+        this.fileKey = fileKey;
+        this.lastModified = lastModified;
+        this.size = size;
+    }
+
+    static FileFingerprint of(final Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileFingerprint(file.toRealPath(), attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+        } catch (final IOException e) {
+            return Absent;
+        }
+    }
+
+    boolean isAbsent() {
+        return realPath == null;
+    }
+
+    Path directory() {
+        return realPath == null ? null : realPath.getParent();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final FileFingerprint that = (FileFingerprint) o;
+        return lastModified == that.lastModified
+                && size == that.size
+                && Objects.equals(realPath, that.realPath)
+                && Objects.equals(fileKey, that.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(realPath, fileKey, lastModified, size);
+    }
+
+    @Override
+    public String toString() {
+        return "FileFingerprint{realPath=" + realPath + ", fileKey=" + fileKey + ", lastModified=" + lastModified + ", size=" + size + '}';
+    }
+
+}
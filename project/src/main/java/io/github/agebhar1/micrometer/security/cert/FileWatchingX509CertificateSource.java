@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class FileWatchingX509CertificateSource implements X509CertificateSource, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileWatchingX509CertificateSource.class);
+    private static final long QuietPeriodMillis = 100;
+
+    private final Path file;
+    private final X509CertificateSource source;
+    private final WatchService watchService;
+    private final Map<Path, WatchKey> watchedDirectories = new ConcurrentHashMap<>();
+    private final Collection<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile FileFingerprint state;
+    private Loaded loaded;
+
+    private FileWatchingX509CertificateSource(final Path file, final X509CertificateSource source) {
+
+        if (file == null) {
+            throw new IllegalArgumentException("File to watch must not be null.");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Certificates source must not be null.");
+        }
+
+        this.file = file.toAbsolutePath().normalize();
+        this.source = source;
+
+        try {
+            watchService = this.file.getFileSystem().newWatchService();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        state = FileFingerprint.of(this.file);
+        watch(this.file.getParent());
+        watch(state.directory());
+    }
+
+    public static FileWatchingX509CertificateSource watch(final Path file, final X509CertificateSource source) {
+
+        final FileWatchingX509CertificateSource watching = new FileWatchingX509CertificateSource(file, source);
+
+        final Thread thread = new Thread(watching::run, "x509-certificate-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+
+        return watching;
+    }
+
+    public void addChangeListener(final Runnable listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Change listener must not be null.");
+        }
+        listeners.add(listener);
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        return load().certificates();
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        load().summaries().forEach(action);
+    }
+
+    private synchronized LoadedX509Certificates load() {
+
+        final long current = version.get();
+        if (loaded == null || loaded.version != current) {
+            logger.debug("Load X509 certificates of file '{}'", file);
+            loaded = new Loaded(current, LoadedX509Certificates.load(source));
+        }
+        return loaded.certificates;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                drain(watchService.take());
+                WatchKey key;
+                while ((key = watchService.poll(QuietPeriodMillis, MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                checkForChange();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException e) {
+            logger.debug("Stop watching file '{}'", file);
+        }
+    }
+
+    private void drain(final WatchKey key) {
+        key.pollEvents();
+        if (!key.reset()) {
+            final Path directory = (Path) key.watchable();
+            logger.debug("Directory '{}' is no longer watched", directory);
+            watchedDirectories.remove(directory, key);
+        }
+    }
+
+    private void checkForChange() {
+
+        final FileFingerprint current = FileFingerprint.of(file);
+        if (current.equals(state)) {
+            return;
+        }
+
+        logger.debug("File '{}' has changed", file);
+        final Path previous = state.directory();
+        state = current;
+        version.incrementAndGet();
+        watch(current.directory());
+        if (previous != null && !previous.equals(current.directory()) && !previous.equals(file.getParent())) {
+            unwatch(previous);
+        }
+
+        for (final Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (final RuntimeException e) {
+                logger.warn("Change listener for file '{}' failed.", file, e);
+            }
+        }
+    }
+
+    private void watch(final Path directory) {
+        if (directory == null || watchedDirectories.containsKey(directory)) {
+            return;
+        }
+        try {
+            watchedDirectories.put(directory, directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+        } catch (final IOException e) {
+            logger.warn("Could not watch directory '{}'", directory, e);
+        }
+    }
+
+    private void unwatch(final Path directory) {
+        final WatchKey key = watchedDirectories.remove(directory);
+        if (key != null) {
+            key.cancel();
+        }
+    }
+
+    int watchedDirectories() {
+        return watchedDirectories.size();
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class Loaded {
+
+        private final long version;
+        private final LoadedX509Certificates certificates;
+
+        private Loaded(final long version, final LoadedX509Certificates certificates) {
+            this.version = version;
+            this.certificates = certificates;
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public class InstrumentedX509CertificateSource implements X509CertificateSource, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedX509CertificateSource.class);
+
+    public static final String ScanName = "security.cert.x509.scan";
+    public static final String ScanDescription = "Time to scan the certificates source.";
+    public static final String CertificatesName = "security.cert.x509.scan.certificates";
+    public static final String CertificatesDescription = "Number of certificates provided by scans of the certificates source.";
+    public static final String FailuresName = "security.cert.x509.scan.failures";
+    public static final String FailuresDescription = "Number of failed scans of the certificates source.";
+    public static final String LastSuccessName = "security.cert.x509.scan.last.success";
+    public static final String LastSuccessDescription = "Time since the Unix epoch in seconds of the last successful scan of the certificates source.";
+
+    private final String name;
+    private final X509CertificateSource source;
+    private final Clock clock;
+
+    private final List<Meters> meters = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastSuccess = new AtomicLong(Long.MIN_VALUE);
+
+    public InstrumentedX509CertificateSource(final String name, final X509CertificateSource source) {
+        this(name, source, Clock.SYSTEM);
+    }
+
+    InstrumentedX509CertificateSource(final String name, final X509CertificateSource source, final Clock clock) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Name of certificates source must not be empty.");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Certificates source must not be null.");
+        }
+        this.name = name;
+        this.source = source;
+        this.clock = clock;
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+        final List<X509Certificate> certificates = new ArrayList<>();
+        forEachCertificate(certificates::add);
+        return certificates;
+    }
+
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+        final Scan scan = new Scan(clock.monotonicTime());
+        try {
+            source.forEachCertificate(certificate -> {
+                if (certificate != null) {
+                    scan.certificates++;
+                }
+                scan.accept(action, certificate);
+            });
+        } catch (final RuntimeException e) {
+            failed(scan, e);
+            throw e;
+        }
+        succeeded(scan);
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        final Scan scan = new Scan(clock.monotonicTime());
+        try {
+            source.forEachCertificateSummary(summary -> {
+                if (summary != null) {
+                    scan.certificates++;
+                }
+                scan.accept(action, summary);
+            });
+        } catch (final RuntimeException e) {
+            failed(scan, e);
+            throw e;
+        }
+        succeeded(scan);
+    }
+
+    private void succeeded(final Scan scan) {
+        final long duration = scan.duration();
+        lastSuccess.set(clock.wallTime());
+        for (final Meters registered : meters) {
+            registered.scan.record(duration, NANOSECONDS);
+            registered.certificates.increment(scan.certificates);
+        }
+    }
+
+    private void failed(final Scan scan, final RuntimeException e) {
+        final long duration = scan.duration();
+        logger.debug("Scan of certificates source '{}' failed after {} certificates", name, scan.certificates);
+        for (final Meters registered : meters) {
+            registered.scan.record(duration, NANOSECONDS);
+            registered.certificates.increment(scan.certificates);
+            Counter.builder(FailuresName)
+                    .description(FailuresDescription)
+                    .tag("source", name)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registered.registry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry meterRegistry) {
+        if (meterRegistry == null) {
+            throw new IllegalArgumentException("MeterRegistry must not be null.");
+        }
+        Gauge.builder(LastSuccessName, lastSuccess, it -> it.get() == Long.MIN_VALUE ? Double.NaN : it.get() / 1000.0)
+                .description(LastSuccessDescription)
+                .baseUnit("seconds")
+                .tag("source", name)
+                .strongReference(true)
+                .register(meterRegistry);
+        meters.add(new Meters(meterRegistry,
+                Timer.builder(ScanName)
+                        .description(ScanDescription)
+                        .tag("source", name)
+                        .register(meterRegistry),
+                Counter.builder(CertificatesName)
+                        .description(CertificatesDescription)
+                        .baseUnit("certificates")
+                        .tag("source", name)
+                        .register(meterRegistry)));
+    }
+
+    private final class Scan {
+
+        private final long start;
+        private long downstream;
+        private long certificates;
+
+        private Scan(final long start) {
+            this.start = start;
+        }
+
+        private <T> void accept(final Consumer<? super T> action, final T value) {
+            final long accepted = clock.monotonicTime();
+            try {
+                action.accept(value);
+            } finally {
+                downstream += clock.monotonicTime() - accepted;
+            }
+        }
+
+        private long duration() {
+            return clock.monotonicTime() - start - downstream;
+        }
+
+    }
+
+    private static final class Meters {
+
+        private final MeterRegistry registry;
+        private final Timer scan;
+        private final Counter certificates;
+
+        private Meters(final MeterRegistry registry, final Timer scan, final Counter certificates) {
+            this.registry = registry;
+            this.scan = scan;
+            this.certificates = certificates;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+final class LoadedX509Certificates {
+
+    static final LoadedX509Certificates Empty = new LoadedX509Certificates(Collections.emptyList());
+
+    private final Collection<X509CertificateSummary> summaries;
+    private volatile Collection<X509Certificate> certificates;
+
+    private LoadedX509Certificates(final Collection<X509CertificateSummary> summaries) {
+        this.summaries = summaries;
+    }
+
+    static LoadedX509Certificates load(final X509CertificateSource source) {
+        final List<X509CertificateSummary> summaries = new ArrayList<>();
+        source.forEachCertificateSummary(summaries::add);
+        return new LoadedX509Certificates(Collections.unmodifiableList(summaries));
+    }
+
+    Collection<X509CertificateSummary> summaries() {
+        return summaries;
+    }
+
+    Collection<X509Certificate> certificates() {
+        Collection<X509Certificate> current = certificates;
+        if (current == null) {
+            final List<X509Certificate> converted = new ArrayList<>(summaries.size());
+            for (final X509CertificateSummary summary : summaries) {
+                converted.add(summary.toX509Certificate());
+            }
+            current = Collections.unmodifiableList(converted);
+            certificates = current;
+        }
+        return current;
+    }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.READ;
+
+public class MappedPemBundleX509CertificateSource implements X509CertificateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedPemBundleX509CertificateSource.class);
+
+    private static final byte[] Begin = "-----BEGIN CERTIFICATE-----".getBytes(US_ASCII);
+    private static final byte[] End = "-----END CERTIFICATE-----".getBytes(US_ASCII);
+    private static final int EntriesPerTask = 64;
+
+    private static final int Whitespace = -2;
+    private static final int Invalid = -1;
+    private static final int[] Base64Alphabet = new int[256];
+
+    static {
+        Arrays.fill(Base64Alphabet, Invalid);
+        final byte[] alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(US_ASCII);
+        for (int i = 0; i < alphabet.length; i++) {
+            Base64Alphabet[alphabet[i]] = i;
+        }
+        Base64Alphabet[' '] = Whitespace;
+        Base64Alphabet['\t'] = Whitespace;
+        Base64Alphabet['\r'] = Whitespace;
+        Base64Alphabet['\n'] = Whitespace;
+    }
+
+    private final Path file;
+    private final ForkJoinPool pool;
+
+    public MappedPemBundleX509CertificateSource(final Path file) {
+        this(file, null, false);
+    }
+
+    public MappedPemBundleX509CertificateSource(final Path file, final ForkJoinPool pool) {
+        this(file, pool, true);
+    }
+
+    private MappedPemBundleX509CertificateSource(final Path file, final ForkJoinPool pool, final boolean parallel) {
+
+        if (file == null) {
+            throw new IllegalArgumentException("File must not be null.");
+        }
+        if (parallel && pool == null) {
+            throw new IllegalArgumentException("ForkJoinPool must not be null.");
+        }
+
+        this.file = file;
+        this.pool = pool;
+    }
+
+    @Override
+    public Collection<X509Certificate> readAllCertificates() {
+
+        final ByteBuffer buffer = map(file);
+        final int[] entries = entries(buffer);
+        return decode(buffer, entries, Decoder::certificate);
+    }
+
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+        forEach(Decoder::certificate, action);
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        forEach(Decoder::summary, action);
+    }
+
+    private <T> void forEach(final Conversion<T> conversion, final Consumer<? super T> action) {
+
+        final ByteBuffer buffer = map(file);
+        final int[] entries = entries(buffer);
+
+        if (pool == null) {
+            new Decoder(buffer).decode(entries, 0, entries.length / 2, conversion, action);
+        } else {
+            decode(buffer, entries, conversion).forEach(action);
+        }
+    }
+
+    private <T> List<T> decode(final ByteBuffer buffer, final int[] entries, final Conversion<T> conversion) {
+        if (pool == null) {
+            final List<T> decoded = new ArrayList<>(entries.length / 2);
+            new Decoder(buffer).decode(entries, 0, entries.length / 2, conversion, decoded::add);
+            return decoded;
+        }
+        return pool.invoke(new DecodeTask<>(buffer, entries, 0, entries.length / 2, conversion));
+    }
+
+    private int[] entries(final ByteBuffer buffer) {
+        final int[] entries = scan(buffer);
+        logger.debug("Found {} PEM encoded certificate(s) in file '{}'", entries.length / 2, file);
+        return entries;
+    }
+
+    private static ByteBuffer map(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int[] scan(final ByteBuffer buffer) {
+
+        int[] entries = new int[64];
+        int size = 0;
+
+        int position = 0;
+        while ((position = indexOf(buffer, Begin, position)) != -1) {
+            final int start = position + Begin.length;
+            final int end = indexOf(buffer, End, start);
+            if (end == -1) {
+                break;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = start;
+            entries[size++] = end;
+            position = end + End.length;
+        }
+        return Arrays.copyOf(entries, size);
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final byte[] pattern, final int from) {
+        final int last = buffer.limit() - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buffer.get(i + j) != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final CertificateFactory factory;
+        private byte[] der = new byte[4096];
+
+        private Decoder(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            try {
+                factory = CertificateFactory.getInstance("X.509");
+            } catch (final CertificateException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private <T> void decode(final int[] entries, final int from, final int to, final Conversion<T> conversion, final Consumer<? super T> action) {
+            for (int entry = from; entry < to; entry++) {
+                final int start = entries[2 * entry];
+                final int length = base64(start, entries[2 * entry + 1]);
+                try {
+                    action.accept(conversion.convert(this, length));
+                } catch (final CertificateException e) {
+                    throw new RuntimeException("Invalid PEM encoded certificate at offset " + start, e);
+                }
+            }
+        }
+
+        private X509Certificate certificate(final int length) throws CertificateException {
+            return (X509Certificate) factory.generateCertificate(new ByteArrayInputStream(der, 0, length));
+        }
+
+        private X509CertificateSummary summary(final int length) throws CertificateException {
+            return X509CertificateSummary.parse(Arrays.copyOf(der, length));
+        }
+
+        private int base64(final int start, final int end) {
+
+            final int capacity = (end - start) / 4 * 3 + 3;
+            if (der.length < capacity) {
+                der = new byte[Math.max(capacity, der.length * 2)];
+            }
+
+            int length = 0;
+            int bits = 0;
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                final int b = buffer.get(i) & 0xff;
+                if (b == '=') {
+                    break;
+                }
+                final int value = Base64Alphabet[b];
+                if (value == Whitespace) {
+                    continue;
+                }
+                if (value == Invalid) {
+                    throw new RuntimeException("Invalid Base64 character at offset " + i);
+                }
+                bits = bits << 6 | value;
+                if (++count == 4) {
+                    der[length++] = (byte) (bits >> 16);
+                    der[length++] = (byte) (bits >> 8);
+                    der[length++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            }
+            if (count == 2) {
+                der[length++] = (byte) (bits >> 4);
+            } else if (count == 3) {
+                der[length++] = (byte) (bits >> 10);
+                der[length++] = (byte) (bits >> 2);
+            }
+            return length;
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface Conversion<T> {
+
+        T convert(Decoder decoder, int length) throws CertificateException;
+
+    }
+
+    private static final class DecodeTask<T> extends RecursiveTask<List<T>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient ByteBuffer buffer;
+        private final int[] entries;
+        private final int from;
+        private final int to;
+        private final transient Conversion<T> conversion;
+
+        private DecodeTask(final ByteBuffer buffer, final int[] entries, final int from, final int to, final Conversion<T> conversion) {
+            this.buffer = buffer;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.conversion = conversion;
+        }
+
+        @Override
+        protected List<T> compute() {
+
+            if (to - from <= EntriesPerTask) {
+                final List<T> decoded = new ArrayList<>(to - from);
+                new Decoder(buffer).decode(entries, from, to, conversion, decoded::add);
+                return decoded;
+            }
+
+            final int middle = (from + to) >>> 1;
+            final DecodeTask<T> left = new DecodeTask<>(buffer, entries, from, middle, conversion);
+            left.fork();
+            final List<T> right = new DecodeTask<>(buffer, entries, middle, to, conversion).compute();
+            final List<T> decoded = left.join();
+            decoded.addAll(right);
+            return decoded;
+        }
+
+    }
+
+}
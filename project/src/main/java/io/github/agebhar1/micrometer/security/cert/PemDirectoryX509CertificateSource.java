@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class PemDirectoryX509CertificateSource implements X509CertificateSource, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PemDirectoryX509CertificateSource.class);
+    private static final String[] Extensions = {".pem", ".crt", ".cer"};
+    private static final int MaxDecodingThreads = 4;
+
+    private final Path directory;
+    private final Executor executor;
+    private final ExecutorService owned;
+
+    private Map<Path, Entry> index = Collections.emptyMap();
+
+    public PemDirectoryX509CertificateSource(final Path directory) {
+        this(directory, decodingThreads(), true);
+    }
+
+    public PemDirectoryX509CertificateSource(final Path directory, final Executor executor) {
+        this(directory, executor, false);
+    }
+
+    private PemDirectoryX509CertificateSource(final Path directory, final Executor executor, final boolean owned) {
+
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must not be null.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null.");
+        }
+
+        this.directory = directory;
+        this.executor = executor;
+        this.owned = owned ? (ExecutorService) executor : null;
+    }
+
+    private static ExecutorService decodingThreads() {
+        final int threads = Math.min(MaxDecodingThreads, Runtime.getRuntime().availableProcessors());
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "x509-certificate-pem-decoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void close() {
+        if (owned != null) {
+            owned.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized Collection<X509Certificate> readAllCertificates() {
+
+        final Map<Path, Entry> next = new HashMap<>();
+        final Map<Path, CompletableFuture<Entry>> pending = new HashMap<>();
+        final List<Path> files = listFiles();
+
+        for (final Path file : files) {
+            final FileFingerprint fingerprint = FileFingerprint.of(file);
+            final Entry entry = index.get(file);
+            if (entry != null && entry.fingerprint.equals(fingerprint)) {
+                next.put(file, entry);
+            } else {
+                pending.put(file, CompletableFuture.supplyAsync(() -> new Entry(fingerprint, decode(file)), executor));
+            }
+        }
+        logger.debug("Decode {} of {} file(s) in directory '{}'", pending.size(), files.size(), directory);
+
+        try {
+            pending.forEach((file, entry) -> next.put(file, entry.join()));
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        }
+        index = next;
+
+        final List<X509Certificate> certificates = new ArrayList<>();
+        for (final Path file : files) {
+            certificates.addAll(next.get(file).certificates);
+        }
+        return Collections.unmodifiableList(certificates);
+    }
+
+    private List<Path> listFiles() {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PemDirectoryX509CertificateSource::isCertificateFile)) {
+            stream.forEach(files::add);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    private static boolean isCertificateFile(final Path file) {
+        final String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (final String extension : Extensions) {
+            if (name.endsWith(extension)) {
+                return Files.isRegularFile(file);
+            }
+        }
+        return false;
+    }
+
+    private static List<X509Certificate> decode(final Path file) {
+        try (InputStream stream = Files.newInputStream(file)) {
+            final List<X509Certificate> certificates = new ArrayList<>();
+            for (final Certificate certificate : CertificateFactory.getInstance("X.509").generateCertificates(stream)) {
+                if (certificate instanceof X509Certificate) {
+                    certificates.add((X509Certificate) certificate);
+                }
+            }
+            return certificates;
+        } catch (final IOException | CertificateException e) {
+            logger.warn("Could not decode X509 certificates of file '{}', skip it until it changes.", file, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class Entry {
+
+        private final FileFingerprint fingerprint;
+        private final List<X509Certificate> certificates;
+
+        private Entry(final FileFingerprint fingerprint, final List<X509Certificate> certificates) {
+            this.fingerprint = fingerprint;
+            this.certificates = certificates;
+        }
+
+    }
+
+}
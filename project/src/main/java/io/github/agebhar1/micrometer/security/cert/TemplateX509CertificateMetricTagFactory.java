@@ -0,0 +1,311 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+import java.nio.charset.Charset;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.agebhar1.micrometer.security.cert.DerReader.ObjectIdentifierTag;
+import static io.github.agebhar1.micrometer.security.cert.DerReader.SequenceTag;
+import static io.github.agebhar1.micrometer.security.cert.DerReader.SetTag;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class TemplateX509CertificateMetricTagFactory implements X509CertificateMetricTagFactory {
+
+    private static final byte[] OidCommonName = {0x55, 0x04, 0x03};
+    private static final int DnsName = 2;
+
+    private final String[] keys;
+    private final Field[] fields;
+    private final boolean fromSummary;
+
+    private TemplateX509CertificateMetricTagFactory(final Map<String, Field> tags) {
+
+        keys = tags.keySet().toArray(new String[0]);
+        fields = tags.values().toArray(new Field[0]);
+
+        boolean summary = true;
+        for (final Field field : fields) {
+            summary &= field.fromSummary;
+        }
+        fromSummary = summary;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static TemplateX509CertificateMetricTagFactory of(final String template) {
+
+        if (template == null) {
+            throw new IllegalArgumentException("Template must not be null.");
+        }
+
+        final Builder builder = builder();
+        for (final String tag : template.split(",")) {
+            final int separator = tag.indexOf('=');
+            if (separator == -1) {
+                throw new IllegalArgumentException(String.format("Invalid tag template '%s', expected '<key>=<field>'.", tag.trim()));
+            }
+            builder.tag(tag.substring(0, separator).trim(), Field.of(tag.substring(separator + 1).trim()));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Iterable<Tag> buildTagsFrom(final X509Certificate certificate) {
+
+        if (certificate == null) {
+            throw new IllegalArgumentException("Certificate must not be null.");
+        }
+
+        final Tag[] tags = new Tag[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            tags[i] = Tag.of(keys[i], fields[i].extract(certificate));
+        }
+        return Tags.of(tags);
+    }
+
+    @Override
+    public Iterable<Tag> buildTagsFromSummary(final X509CertificateSummary summary) {
+
+        if (summary == null) {
+            throw new IllegalArgumentException("Certificate summary must not be null.");
+        }
+        if (!fromSummary) {
+            return buildTagsFrom(summary.toX509Certificate());
+        }
+
+        final Tag[] tags = new Tag[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            tags[i] = Tag.of(keys[i], fields[i].extract(summary));
+        }
+        return Tags.of(tags);
+    }
+
+    public enum Field {
+
+        SubjectDN(true) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return certificate.getSubjectX500Principal().toString();
+            }
+
+            @Override
+            String extract(final X509CertificateSummary summary) {
+                return summary.getSubjectX500Principal().toString();
+            }
+        },
+
+        SubjectCN(true) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return commonName(certificate.getSubjectX500Principal().getEncoded());
+            }
+
+            @Override
+            String extract(final X509CertificateSummary summary) {
+                return commonName(summary.getEncodedSubject());
+            }
+        },
+
+        IssuerDN(true) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return certificate.getIssuerX500Principal().toString();
+            }
+
+            @Override
+            String extract(final X509CertificateSummary summary) {
+                return summary.getIssuerX500Principal().toString();
+            }
+        },
+
+        IssuerCN(true) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return commonName(certificate.getIssuerX500Principal().getEncoded());
+            }
+
+            @Override
+            String extract(final X509CertificateSummary summary) {
+                return commonName(summary.getEncodedIssuer());
+            }
+        },
+
+        SerialNumber(true) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return certificate.getSerialNumber().toString(16);
+            }
+
+            @Override
+            String extract(final X509CertificateSummary summary) {
+                return summary.getSerialNumber().toString(16);
+            }
+        },
+
+        Sha256Fingerprint(true) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return CertificateFingerprint.of(certificate).toString();
+            }
+
+            @Override
+            String extract(final X509CertificateSummary summary) {
+                return CertificateFingerprint.of(summary).toString();
+            }
+        },
+
+        SubjectAlternativeDnsNames(false) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return dnsNames(certificate);
+            }
+        },
+
+        KeyAlgorithm(false) {
+            @Override
+            String extract(final X509Certificate certificate) {
+                return certificate.getPublicKey().getAlgorithm();
+            }
+        };
+
+        private final boolean fromSummary;
+
+        Field(final boolean fromSummary) {
+            this.fromSummary = fromSummary;
+        }
+
+        abstract String extract(X509Certificate certificate);
+
+        String extract(final X509CertificateSummary summary) {
+            return extract(summary.toX509Certificate());
+        }
+
+        private static Field of(final String name) {
+            for (final Field field : values()) {
+                if (field.name().equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unknown tag field '%s'.", name));
+        }
+
+    }
+
+    private static String commonName(final byte[] name) {
+
+        String commonName = "";
+        final DerReader rdns = new DerReader(name).enter(SequenceTag);
+        while (rdns.hasRemaining()) {
+            final DerReader rdn = rdns.enter(SetTag);
+            while (rdn.hasRemaining()) {
+                final DerReader attribute = rdn.enter(SequenceTag);
+                final int[] type = attribute.value();
+                if (type[0] == ObjectIdentifierTag && isCommonName(name, type[1], type[2])) {
+                    final int[] value = attribute.value();
+                    commonName = new String(name, value[1], value[2] - value[1], charsetOf(value[0]));
+                }
+            }
+        }
+        return commonName;
+    }
+
+    private static boolean isCommonName(final byte[] name, final int from, final int to) {
+        if (to - from != OidCommonName.length) {
+            return false;
+        }
+        for (int i = 0; i < OidCommonName.length; i++) {
+            if (name[from + i] != OidCommonName[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Charset charsetOf(final int tag) {
+        switch (tag) {
+            case 0x14:
+                return ISO_8859_1;
+            case 0x1c:
+                return Charset.forName("UTF-32BE");
+            case 0x1e:
+                return UTF_16BE;
+            default:
+                return UTF_8;
+        }
+    }
+
+    private static String dnsNames(final X509Certificate certificate) {
+        try {
+            final Collection<List<?>> names = certificate.getSubjectAlternativeNames();
+            if (names == null) {
+                return "";
+            }
+            final List<String> dnsNames = new ArrayList<>(names.size());
+            for (final List<?> name : names) {
+                if (name.size() == 2 && name.get(0) instanceof Integer && (Integer) name.get(0) == DnsName) {
+                    dnsNames.add(String.valueOf(name.get(1)));
+                }
+            }
+            return String.join(",", dnsNames);
+        } catch (final CertificateParsingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Field> tags = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder tag(final String key, final Field field) {
+            if (key == null || key.isEmpty()) {
+                throw new IllegalArgumentException("Tag key must not be empty.");
+            }
+            if (field == null) {
+                throw new IllegalArgumentException("Tag field must not be null.");
+            }
+            if (tags.putIfAbsent(key, field) != null) {
+                throw new IllegalArgumentException(String.format("Duplicate tag key '%s'.", key));
+            }
+            return this;
+        }
+
+        public TemplateX509CertificateMetricTagFactory build() {
+            if (tags.isEmpty()) {
+                throw new IllegalArgumentException("At least one tag must be configured.");
+            }
+            return new TemplateX509CertificateMetricTagFactory(tags);
+        }
+
+    }
+
+}
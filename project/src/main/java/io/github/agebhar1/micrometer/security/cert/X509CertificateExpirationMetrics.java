@@ -15,60 +15,240 @@
  */
 package io.github.agebhar1.micrometer.security.cert;
 
+import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.noop.NoopGauge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
-import java.util.function.Supplier;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static java.util.stream.Collectors.toList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
-public class X509CertificateExpirationMetrics implements MeterBinder {
+public class X509CertificateExpirationMetrics implements MeterBinder, AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(X509CertificateExpirationMetrics.class);
 
     public static final String Name = "security.cert.x509.expiration";
     public static final String Description = "Time since the Unix epoch in seconds when the certificate is no longer valid.";
+    public static final String OmittedName = "security.cert.x509.expiration.omitted";
+    public static final String OmittedDescription = "Number of certificates without expiration gauge of their own due to the limit.";
+    public static final String OmittedMinName = "security.cert.x509.expiration.omitted.min";
+    public static final String OmittedMinDescription = "Earliest time since the Unix epoch in seconds when a certificate without expiration gauge of its own is no longer valid.";
+    public static final String WindowName = "security.cert.x509.expiration.window";
+    public static final String WindowDescription = "Number of certificates which expire within the window.";
+    public static final String RemainingName = "security.cert.x509.expiration.remaining";
+    public static final String RemainingDescription = "Number of seconds until the certificate is no longer valid.";
+    public static final String CertificatesName = "security.cert.x509.expiration.certificates";
+    public static final String CertificatesDescription = "Number of certificates provided by the source.";
 
-    private final Collection<Gauge.Builder<Supplier<Long>>> gauges;
+    private static final long InitialRetryDelayNanos = SECONDS.toNanos(1);
+    private static final long MaxRetryDelayNanos = MINUTES.toNanos(5);
+
+    private final X509CertificateMetricTagFactory metricTagFactory;
+    private final X509CertificateSource source;
+    private final int limit;
+    private final long[] windows;
+    private final boolean remaining;
+    private final Loading loading;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<MeterRegistry, Binding> bindings = new WeakHashMap<>();
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private final AtomicReference<Expirations> snapshot = new AtomicReference<>();
+
+    private final Object attempts = new Object();
+    private CompletableFuture<Void> attempt = CompletableFuture.completedFuture(null);
+    private long retryAt;
+    private long retryDelayNanos;
 
     public X509CertificateExpirationMetrics(final X509CertificateMetricTagFactory metricTagFactory, final X509CertificateSource source) {
+        this(builder(metricTagFactory, source));
+    }
+
+    private X509CertificateExpirationMetrics(final Builder builder) {
 
         logger.info("Create instance of class '{}'", getClass().getCanonicalName());
-        if (metricTagFactory == null) {
+        if (builder.metricTagFactory == null) {
             throw new IllegalArgumentException("Factory for metric tags from X509 certificates must not be null.");
         }
-        if (source == null) {
+        if (builder.source == null) {
             throw new IllegalArgumentException("Certificates source must not be null.");
         }
 
-        gauges = populate(metricTagFactory, source.readAllCertificates());
+        metricTagFactory = builder.metricTagFactory;
+        source = builder.source;
+        limit = builder.limit;
+        windows = builder.windows;
+        remaining = builder.remaining;
+        loading = builder.loading;
+        if (loading != Loading.Eager) {
+            snapshot.set(Expirations.Unloaded);
+        } else {
+            snapshot.set(populate(metricTagFactory, source));
+            loaded.complete(null);
+        }
+
+        if (builder.refreshInterval == null && loading == Loading.Eager) {
+            scheduler = null;
+        } else {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "x509-certificate-expiration-metrics-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (loading == Loading.Asynchronous) {
+            scheduler.execute(this::initialLoad);
+        }
+        if (builder.refreshInterval != null) {
+            final long interval = builder.refreshInterval.toNanos();
+            scheduler.scheduleWithFixedDelay(this::scheduledRefresh, interval, interval, NANOSECONDS);
+        }
+    }
 
+    public static Builder builder(final X509CertificateMetricTagFactory metricTagFactory, final X509CertificateSource source) {
+        return new Builder(metricTagFactory, source);
     }
 
-    private Collection<Gauge.Builder<Supplier<Long>>> populate(final X509CertificateMetricTagFactory metricTagFactory, final Collection<X509Certificate> certificates) {
+    private Expirations populate(final X509CertificateMetricTagFactory metricTagFactory, final X509CertificateSource source) {
 
-        if (certificates == null) {
-            throw new IllegalArgumentException("Collection of certificates must not be null.");
+        final Expirations.Builder expirations = new Expirations.Builder(metricTagFactory, limit, windows != null);
+        source.forEachCertificateSummary(summary -> {
+            if (summary != null) {
+                expirations.add(summary);
+            }
+        });
+        return expirations.build();
+    }
+
+    public synchronized void refresh() {
+
+        final Expirations next = populate(metricTagFactory, source);
+
+        synchronized (bindings) {
+            final Collection<Tags> added = new ArrayList<>();
+            final Collection<Tags> removed = new ArrayList<>();
+            final Expirations current = snapshot.get().reconcile(next, added, removed);
+            snapshot.set(current);
+            if (added.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            logger.debug("Reconcile gauges of X509 certificates, {} added and {} removed", added.size(), removed.size());
+            bindings.forEach((registry, binding) -> {
+                for (final Tags tags : removed) {
+                    final Collection<Meter> vanished = binding.meters.remove(tags);
+                    if (vanished != null) {
+                        vanished.forEach(registry::remove);
+                    }
+                }
+                register(registry, binding, current, added);
+            });
+        }
+    }
+
+    private void initialLoad() {
+        try {
+            refresh();
+            loaded.complete(null);
+        } catch (final RuntimeException e) {
+            final long delay = nextRetryDelayNanos();
+            logger.warn("Failed to load X509 certificates, retry in {}.", Duration.ofNanos(delay), e);
+            try {
+                scheduler.schedule(this::initialLoad, delay, NANOSECONDS);
+            } catch (final RejectedExecutionException rejected) {
+                logger.debug("Skip loading X509 certificates, already closed.");
+            }
         }
+    }
 
-        return certificates.stream()
-                .filter(Objects::nonNull)
-                .map(certificate -> new Object() {
-                    final long epochNotAfter = certificate.getNotAfter().toInstant().getEpochSecond();
-                    final Iterable<Tag> tags = metricTagFactory.buildTagsFrom(certificate);
-                })
-                .map(it -> Gauge.builder(Name, () -> it.epochNotAfter)
-                        .description(Description)
-                        .baseUnit("seconds")
-                        .tags(it.tags))
-                .collect(toList());
+    private long nextRetryDelayNanos() {
+        synchronized (attempts) {
+            retryDelayNanos = retryDelayNanos == 0 ? InitialRetryDelayNanos : Math.min(retryDelayNanos * 2, MaxRetryDelayNanos);
+            return retryDelayNanos;
+        }
+    }
+
+    private void lazyLoad(final Clock clock) {
+        synchronized (attempts) {
+            if (loaded.isDone() || !attempt.isDone() || (retryDelayNanos > 0 && clock.monotonicTime() - retryAt < 0)) {
+                return;
+            }
+            try {
+                attempt = CompletableFuture.runAsync(this::refresh, scheduler).handle((ignored, e) -> {
+                    lazyLoaded(clock, e);
+                    return null;
+                });
+            } catch (final RejectedExecutionException e) {
+                logger.debug("Skip loading X509 certificates, already closed.");
+            }
+        }
+    }
+
+    private void lazyLoaded(final Clock clock, final Throwable e) {
+        synchronized (attempts) {
+            if (e == null) {
+                loaded.complete(null);
+                return;
+            }
+            retryAt = clock.monotonicTime() + nextRetryDelayNanos();
+            logger.warn("Failed to load X509 certificates, retry on collection after {}.", Duration.ofNanos(retryDelayNanos),
+                    e instanceof CompletionException ? e.getCause() : e);
+        }
+    }
+
+    private void collected(final Clock clock) {
+        if (loading == Loading.Lazy && !loaded.isDone()) {
+            lazyLoad(clock);
+        }
+    }
+
+    CompletableFuture<Void> loaded() {
+        return loaded;
+    }
+
+    int capacity() {
+        return snapshot.get().tags.length;
+    }
+
+    CompletableFuture<Void> attempt() {
+        synchronized (attempts) {
+            return attempt;
+        }
+    }
+
+    private void scheduledRefresh() {
+        if (!loaded.isDone()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (final RuntimeException e) {
+            logger.warn("Failed to refresh X509 certificates, keep previous metrics.", e);
+        }
     }
 
     @Override
@@ -76,7 +256,469 @@ public class X509CertificateExpirationMetrics implements MeterBinder {
         if (meterRegistry == null) {
             throw new IllegalArgumentException("MeterRegistry must not be null.");
         }
-        gauges.forEach(gauge -> gauge.register(meterRegistry));
+        final Clock clock = meterRegistry.config().clock();
+        final Scrape scrape;
+        synchronized (bindings) {
+            final Binding binding = bindings.computeIfAbsent(meterRegistry, registry -> new Binding(new Scrape(clock, snapshot, () -> collected(clock))));
+            final Expirations current = snapshot.get();
+            register(meterRegistry, binding, current, current.slots.keySet());
+            scrape = binding.scrape;
+        }
+        final Collection<Gauge> aggregates = new ArrayList<>();
+        if (loading == Loading.Lazy) {
+            aggregates.add(Gauge.builder(CertificatesName, new Reader(scrape), it -> {
+                        final long count = it.pinned().expirations.count;
+                        return count < 0 ? Double.NaN : count;
+                    })
+                    .description(CertificatesDescription)
+                    .baseUnit("certificates")
+                    .strongReference(true)
+                    .register(meterRegistry));
+        }
+        if (limit > 0) {
+            aggregates.add(Gauge.builder(OmittedName, new Reader(scrape), it -> it.pinned().expirations.omitted)
+                    .description(OmittedDescription)
+                    .baseUnit("certificates")
+                    .strongReference(true)
+                    .register(meterRegistry));
+            aggregates.add(Gauge.builder(OmittedMinName, new Reader(scrape), it -> {
+                        final long omittedMin = it.pinned().expirations.omittedMin;
+                        return omittedMin == Long.MAX_VALUE ? Double.NaN : omittedMin;
+                    })
+                    .description(OmittedMinDescription)
+                    .baseUnit("seconds")
+                    .strongReference(true)
+                    .register(meterRegistry));
+        }
+        if (windows != null) {
+            registerWindows(meterRegistry, scrape, aggregates);
+        }
+        if (loading == Loading.Lazy && aggregates.stream().allMatch(NoopGauge.class::isInstance)) {
+            logger.debug("None of the gauges is collected, load X509 certificates on binding.");
+            collected(clock);
+        }
+    }
+
+    private void registerWindows(final MeterRegistry meterRegistry, final Scrape scrape, final Collection<Gauge> aggregates) {
+
+        aggregates.add(registerWindow(meterRegistry, "expired", scrape, Long.MIN_VALUE, 0));
+        long lower = 0;
+        for (final long window : windows) {
+            aggregates.add(registerWindow(meterRegistry, format(window), scrape, lower, window));
+            lower = window;
+        }
+        aggregates.add(registerWindow(meterRegistry, "later", scrape, lower, Long.MAX_VALUE));
+    }
+
+    private Gauge registerWindow(final MeterRegistry meterRegistry, final String window, final Scrape scrape, final long lower, final long upper) {
+        return Gauge.builder(WindowName, new Reader(scrape), it -> it.pinned().countWithin(lower, upper))
+                .description(WindowDescription)
+                .baseUnit("certificates")
+                .tag("window", window)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    private static int countWithin(final long[] sorted, final long now, final long lower, final long upper) {
+        final int from = lower == Long.MIN_VALUE ? 0 : countBefore(sorted, now + lower);
+        final int to = upper == Long.MAX_VALUE ? sorted.length : countBefore(sorted, now + upper);
+        return to - from;
+    }
+
+    private static int countBefore(final long[] sorted, final long epoch) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sorted[middle] < epoch) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String format(final long seconds) {
+        if (seconds % 86_400 == 0) {
+            return seconds / 86_400 + "d";
+        }
+        if (seconds % 3_600 == 0) {
+            return seconds / 3_600 + "h";
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 + "m";
+        }
+        return seconds + "s";
+    }
+
+    private void register(final MeterRegistry meterRegistry, final Binding binding, final Expirations current, final Collection<Tags> added) {
+
+        final Scrape scrape = binding.scrape;
+        for (final Tags tags : added) {
+            final int slot = current.slots.get(tags);
+            final Collection<Meter> registered = new ArrayList<>(2);
+            registered.add(Gauge.builder(Name, new Reader(scrape), it -> it.pinned().epochOf(slot, tags))
+                    .description(Description)
+                    .baseUnit("seconds")
+                    .tags(tags)
+                    .strongReference(true)
+                    .register(meterRegistry));
+            if (remaining) {
+                registered.add(Gauge.builder(RemainingName, new Reader(scrape), it -> it.pinned().remainingOf(slot, tags))
+                        .description(RemainingDescription)
+                        .baseUnit("seconds")
+                        .tags(tags)
+                        .strongReference(true)
+                        .register(meterRegistry));
+            }
+            binding.meters.put(tags, registered);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        synchronized (bindings) {
+            bindings.clear();
+        }
+    }
+
+    private static final class Binding {
+
+        private final Scrape scrape;
+        private final Map<Tags, Collection<Meter>> meters = new HashMap<>();
+
+        private Binding(final Scrape scrape) {
+            this.scrape = scrape;
+        }
+
+    }
+
+    private static final class Scrape {
+
+        private final Clock clock;
+        private final AtomicReference<Expirations> snapshot;
+        private final Runnable collected;
+        private final AtomicReference<Pinned> pinned;
+
+        private Scrape(final Clock clock, final AtomicReference<Expirations> snapshot, final Runnable collected) {
+            this.clock = clock;
+            this.snapshot = snapshot;
+            this.collected = collected;
+            this.pinned = new AtomicReference<>(new Pinned(snapshot.get(), clock.wallTime() / 1000));
+        }
+
+        private Pinned pinned(final Reader reader) {
+            Pinned current = pinned.get();
+            if (reader.seen == current) {
+                final Pinned next = new Pinned(snapshot.get(), clock.wallTime() / 1000);
+                current = pinned.compareAndSet(current, next) ? next : pinned.get();
+                collected.run();
+            }
+            reader.seen = current;
+            return current;
+        }
+
+    }
+
+    private static final class Reader {
+
+        private final Scrape scrape;
+        private volatile Pinned seen;
+
+        private Reader(final Scrape scrape) {
+            this.scrape = scrape;
+            this.seen = scrape.pinned.get();
+        }
+
+        private Pinned pinned() {
+            return scrape.pinned(this);
+        }
+
+    }
+
+    private static final class Pinned {
+
+        private final Expirations expirations;
+        private final long now;
+
+        private Pinned(final Expirations expirations, final long now) {
+            this.expirations = expirations;
+            this.now = now;
+        }
+
+        private double epochOf(final int slot, final Tags tags) {
+            return slot < expirations.tags.length && expirations.tags[slot] == tags ? expirations.epochs[slot] : Double.NaN;
+        }
+
+        private double remainingOf(final int slot, final Tags tags) {
+            return epochOf(slot, tags) - now;
+        }
+
+        private int countWithin(final long lower, final long upper) {
+            return X509CertificateExpirationMetrics.countWithin(expirations.sorted, now, lower, upper);
+        }
+
+    }
+
+    private static final class Expirations {
+
+        private static final Expirations Unloaded = new Expirations(new Tags[0], new long[0], Collections.emptyMap(), -1, 0, Long.MAX_VALUE, new long[0]);
+
+        private final Tags[] tags;
+        private final long[] epochs;
+        private final Map<Tags, Integer> slots;
+        private final long count;
+        private final long omitted;
+        private final long omittedMin;
+        private final long[] sorted;
+
+        private Expirations(final Tags[] tags, final long[] epochs, final Map<Tags, Integer> slots, final long count, final long omitted,
+                            final long omittedMin, final long[] sorted) {
+            this.tags = tags;
+            this.epochs = epochs;
+            this.slots = slots;
+            this.count = count;
+            this.omitted = omitted;
+            this.omittedMin = omittedMin;
+            this.sorted = sorted;
+        }
+
+        private Expirations reconcile(final Expirations next, final Collection<Tags> added, final Collection<Tags> removed) {
+
+            final Deque<Integer> free = new ArrayDeque<>();
+            Tags[] tags = this.tags.clone();
+            for (int slot = 0; slot < tags.length; slot++) {
+                if (tags[slot] != null && !next.slots.containsKey(tags[slot])) {
+                    removed.add(tags[slot]);
+                    tags[slot] = null;
+                }
+                if (tags[slot] == null) {
+                    free.add(slot);
+                }
+            }
+
+            long[] epochs = new long[tags.length];
+            final Map<Tags, Integer> slots = new HashMap<>(next.slots.size() * 4 / 3 + 1);
+            for (int index = 0; index < next.tags.length; index++) {
+                final Integer current = this.slots.get(next.tags[index]);
+                int slot;
+                if (current != null) {
+                    slot = current;
+                } else {
+                    final Integer poll = free.poll();
+                    slot = poll == null ? tags.length : poll;
+                    if (slot == tags.length) {
+                        tags = Arrays.copyOf(tags, Math.max(16, tags.length * 2));
+                        epochs = Arrays.copyOf(epochs, tags.length);
+                        for (int hole = slot + 1; hole < tags.length; hole++) {
+                            free.add(hole);
+                        }
+                    }
+                    tags[slot] = next.tags[index];
+                    added.add(next.tags[index]);
+                }
+                epochs[slot] = next.epochs[index];
+                slots.put(tags[slot], slot);
+            }
+            return new Expirations(tags, epochs, slots, next.count, next.omitted, next.omittedMin, next.sorted);
+        }
+
+        private static final class Builder {
+
+            private final X509CertificateMetricTagFactory metricTagFactory;
+            private final int limit;
+
+            private final Map<Tags, Integer> slots = new HashMap<>();
+            private final List<Tags> tags = new ArrayList<>();
+            private long[] epochs = new long[16];
+
+            private final Map<Tags, Candidate> candidates = new HashMap<>();
+            private final PriorityQueue<Candidate> soonest;
+            private long omitted;
+            private long omittedMin = Long.MAX_VALUE;
+
+            private int count;
+            private long[] sorted;
+
+            private Builder(final X509CertificateMetricTagFactory metricTagFactory, final int limit, final boolean sorted) {
+                this.metricTagFactory = metricTagFactory;
+                this.limit = limit;
+                this.soonest = limit > 0 ? new PriorityQueue<>(limit + 1, (a, b) -> Long.compare(b.epoch, a.epoch)) : null;
+                this.sorted = sorted ? new long[16] : null;
+            }
+
+            private void add(final X509CertificateSummary summary) {
+
+                final long epoch = summary.getNotAfter().getEpochSecond();
+                if (sorted != null) {
+                    if (count == sorted.length) {
+                        sorted = Arrays.copyOf(sorted, sorted.length * 2);
+                    }
+                    sorted[count] = epoch;
+                }
+                count++;
+
+                if (soonest == null) {
+                    addDistinct(Tags.of(metricTagFactory.buildTagsFromSummary(summary)), epoch);
+                } else if (soonest.size() == limit && epoch > soonest.peek().epoch) {
+                    omit(epoch);
+                } else {
+                    addCandidate(Tags.of(metricTagFactory.buildTagsFromSummary(summary)), epoch);
+                }
+            }
+
+            private void addDistinct(final Tags tags, final long epoch) {
+
+                final Integer slot = slots.putIfAbsent(tags, this.tags.size());
+                if (slot != null) {
+                    epochs[slot] = Math.min(epochs[slot], epoch);
+                    return;
+                }
+                if (this.tags.size() == epochs.length) {
+                    epochs = Arrays.copyOf(epochs, epochs.length * 2);
+                }
+                epochs[this.tags.size()] = epoch;
+                this.tags.add(tags);
+            }
+
+            private void addCandidate(final Tags tags, final long epoch) {
+
+                final Candidate candidate = candidates.get(tags);
+                if (candidate != null) {
+                    if (epoch < candidate.epoch) {
+                        soonest.remove(candidate);
+                        candidate.epoch = epoch;
+                        soonest.add(candidate);
+                    }
+                    return;
+                }
+                final Candidate added = new Candidate(tags, epoch);
+                candidates.put(tags, added);
+                soonest.add(added);
+                if (soonest.size() > limit) {
+                    final Candidate evicted = soonest.poll();
+                    candidates.remove(evicted.tags);
+                    omit(evicted.epoch);
+                }
+            }
+
+            private void omit(final long epoch) {
+                omitted++;
+                omittedMin = Math.min(omittedMin, epoch);
+            }
+
+            private Expirations build() {
+
+                final long[] sorted = this.sorted != null ? Arrays.copyOf(this.sorted, count) : null;
+                if (sorted != null) {
+                    Arrays.sort(sorted);
+                }
+                if (soonest == null) {
+                    return new Expirations(tags.toArray(new Tags[0]), Arrays.copyOf(epochs, tags.size()), slots, count, 0, Long.MAX_VALUE, sorted);
+                }
+
+                final Candidate[] retained = soonest.toArray(new Candidate[0]);
+                Arrays.sort(retained, (a, b) -> Long.compare(a.epoch, b.epoch));
+                final Tags[] kept = new Tags[retained.length];
+                final long[] keptEpochs = new long[retained.length];
+                final Map<Tags, Integer> keptSlots = new HashMap<>(retained.length * 4 / 3 + 1);
+                for (int slot = 0; slot < retained.length; slot++) {
+                    kept[slot] = retained[slot].tags;
+                    keptEpochs[slot] = retained[slot].epoch;
+                    keptSlots.put(kept[slot], slot);
+                }
+                return new Expirations(kept, keptEpochs, keptSlots, count, omitted, omittedMin, sorted);
+            }
+
+        }
+
+        private static final class Candidate {
+
+            private final Tags tags;
+            private long epoch;
+
+            private Candidate(final Tags tags, final long epoch) {
+                this.tags = tags;
+                this.epoch = epoch;
+            }
+
+        }
+
+    }
+
+    public enum Loading {
+        Eager,
+        Asynchronous,
+        Lazy
+    }
+
+    public static final class Builder {
+
+        private final X509CertificateMetricTagFactory metricTagFactory;
+        private final X509CertificateSource source;
+        private Duration refreshInterval;
+        private int limit;
+        private long[] windows;
+        private boolean remaining;
+        private Loading loading = Loading.Eager;
+
+        private Builder(final X509CertificateMetricTagFactory metricTagFactory, final X509CertificateSource source) {
+            this.metricTagFactory = metricTagFactory;
+            this.source = source;
+        }
+
+        public Builder refreshInterval(final Duration refreshInterval) {
+            if (refreshInterval == null || refreshInterval.isNegative() || refreshInterval.isZero()) {
+                throw new IllegalArgumentException("Refresh interval must be positive.");
+            }
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        public Builder limit(final int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive.");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder expiryWindows(final Duration... windows) {
+            if (windows == null || windows.length == 0) {
+                throw new IllegalArgumentException("Expiry windows must not be empty.");
+            }
+            final long[] seconds = new long[windows.length];
+            for (int i = 0; i < windows.length; i++) {
+                if (windows[i] == null || windows[i].getSeconds() <= 0) {
+                    throw new IllegalArgumentException("Expiry window must be at least one second.");
+                }
+                seconds[i] = windows[i].getSeconds();
+            }
+            this.windows = Arrays.stream(seconds).sorted().distinct().toArray();
+            return this;
+        }
+
+        public Builder remainingSeconds(final boolean remaining) {
+            this.remaining = remaining;
+            return this;
+        }
+
+        public Builder loading(final Loading loading) {
+            if (loading == null) {
+                throw new IllegalArgumentException("Loading must not be null.");
+            }
+            this.loading = loading;
+            return this;
+        }
+
+        public X509CertificateExpirationMetrics build() {
+            return new X509CertificateExpirationMetrics(this);
+        }
+
     }
 
 }
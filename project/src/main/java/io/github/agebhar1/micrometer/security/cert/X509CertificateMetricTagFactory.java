@@ -23,4 +23,13 @@ public interface X509CertificateMetricTagFactory {
 
     Iterable<Tag> buildTagsFrom(X509Certificate certificate);
 
+    default Iterable<Tag> buildTagsFromSummary(final X509CertificateSummary summary) {
+
+        if (summary == null) {
+            throw new IllegalArgumentException("Certificate summary must not be null.");
+        }
+
+        return buildTagsFrom(summary.toX509Certificate());
+    }
+
 }
@@ -17,9 +17,28 @@ package io.github.agebhar1.micrometer.security.cert;
 
 import java.security.cert.X509Certificate;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface X509CertificateSource {
 
     Collection<X509Certificate> readAllCertificates();
 
+    default void forEachCertificate(final Consumer<? super X509Certificate> action) {
+
+        final Collection<X509Certificate> certificates = readAllCertificates();
+        if (certificates == null) {
+            throw new IllegalArgumentException("Collection of certificates must not be null.");
+        }
+
+        certificates.forEach(action);
+    }
+
+    default void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        forEachCertificate(certificate -> {
+            if (certificate != null) {
+                action.accept(X509CertificateSummary.of(certificate));
+            }
+        });
+    }
+
 }
@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static java.util.function.Function.identity;
@@ -41,6 +42,16 @@ public class X509CertificateSourceComposite implements X509CertificateSource {
                 .collect(toList());
     }
 
+    @Override
+    public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+        sources.forEach(source -> source.forEachCertificate(action));
+    }
+
+    @Override
+    public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+        sources.forEach(source -> source.forEachCertificateSummary(action));
+    }
+
     public static X509CertificateSource of(final X509CertificateSource... sources) {
         return new X509CertificateSourceComposite(asCollectionIfNoneNull(sources, Arrays::asList));
     }
@@ -49,7 +60,17 @@ public class X509CertificateSourceComposite implements X509CertificateSource {
         return new X509CertificateSourceComposite(asCollectionIfNoneNull(sources, identity()));
     }
 
-    private static <T> Collection<X509CertificateSource> asCollectionIfNoneNull(final T value, final Function<T, Collection<X509CertificateSource>> f) {
+    public static X509CertificateSource isolated(final X509CertificateSource... sources) {
+        return isolated(asCollectionIfNoneNull(sources, Arrays::asList));
+    }
+
+    public static X509CertificateSource isolated(final Collection<X509CertificateSource> sources) {
+        return new X509CertificateSourceComposite(asCollectionIfNoneNull(sources, identity()).stream()
+                .map(FaultTolerantX509CertificateSource::new)
+                .collect(toList()));
+    }
+
+    static <T> Collection<X509CertificateSource> asCollectionIfNoneNull(final T value, final Function<T, Collection<X509CertificateSource>> f) {
         return Optional.ofNullable(value)
                 .map(f)
                 .filter(it -> it.stream().noneMatch(Objects::isNull))
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static io.github.agebhar1.micrometer.security.cert.DerReader.IntegerTag;
+import static io.github.agebhar1.micrometer.security.cert.DerReader.SequenceTag;
+import static io.github.agebhar1.micrometer.security.cert.DerReader.VersionTag;
+
+public final class X509CertificateSummary {
+
+    private final BigInteger serialNumber;
+    private final Instant notBefore;
+    private final Instant notAfter;
+    private final byte[] encoded;
+    private final int[] issuer;
+    private final int[] subject;
+    private volatile X509Certificate certificate;
+
+    private X509CertificateSummary(final BigInteger serialNumber, final Instant notBefore, final Instant notAfter, final byte[] encoded,
+                                   final int[] issuer, final int[] subject, final X509Certificate certificate) {
+        this.serialNumber = serialNumber;
+        this.notBefore = notBefore;
+        this.notAfter = notAfter;
+        this.encoded = encoded;
+        this.issuer = issuer;
+        this.subject = subject;
+        this.certificate = certificate;
+    }
+
+    public static X509CertificateSummary of(final X509Certificate certificate) {
+
+        if (certificate == null) {
+            throw new IllegalArgumentException("Certificate must not be null.");
+        }
+
+        return new X509CertificateSummary(certificate.getSerialNumber(), certificate.getNotBefore().toInstant(), certificate.getNotAfter().toInstant(),
+                null, null, null, certificate);
+    }
+
+    public static X509CertificateSummary parse(final byte[] encoded) throws CertificateParsingException {
+
+        if (encoded == null) {
+            throw new IllegalArgumentException("Encoded certificate must not be null.");
+        }
+
+        try {
+            final DerReader certificate = new DerReader(encoded);
+            final DerReader tbsCertificate = certificate.enter(SequenceTag).enter(SequenceTag);
+
+            if (tbsCertificate.peek() == VersionTag) {
+                tbsCertificate.skip();
+            }
+            final BigInteger serialNumber = new BigInteger(tbsCertificate.content(IntegerTag));
+            tbsCertificate.expect(SequenceTag).skip();
+            final int[] issuer = tbsCertificate.expect(SequenceTag).element();
+            final DerReader validity = tbsCertificate.enter(SequenceTag);
+            final Instant notBefore = validity.time();
+            final Instant notAfter = validity.time();
+            final int[] subject = tbsCertificate.expect(SequenceTag).element();
+
+            return new X509CertificateSummary(serialNumber, notBefore, notAfter, encoded, issuer, subject, null);
+        } catch (final RuntimeException e) {
+            throw new CertificateParsingException("Invalid DER encoded X509 certificate.", e);
+        }
+    }
+
+    public BigInteger getSerialNumber() {
+        return serialNumber;
+    }
+
+    public X500Principal getIssuerX500Principal() {
+        final X509Certificate current = certificate;
+        return current != null ? current.getIssuerX500Principal() : principal(issuer);
+    }
+
+    public X500Principal getSubjectX500Principal() {
+        final X509Certificate current = certificate;
+        return current != null ? current.getSubjectX500Principal() : principal(subject);
+    }
+
+    byte[] getEncodedIssuer() {
+        final X509Certificate current = certificate;
+        return current != null ? current.getIssuerX500Principal().getEncoded() : Arrays.copyOfRange(encoded, issuer[0], issuer[1]);
+    }
+
+    byte[] getEncodedSubject() {
+        final X509Certificate current = certificate;
+        return current != null ? current.getSubjectX500Principal().getEncoded() : Arrays.copyOfRange(encoded, subject[0], subject[1]);
+    }
+
+    byte[] getEncoded() {
+        return encoded;
+    }
+
+    int getEncodedLength() {
+        return encoded != null ? encoded.length : -1;
+    }
+
+    public Instant getNotBefore() {
+        return notBefore;
+    }
+
+    public Instant getNotAfter() {
+        return notAfter;
+    }
+
+    public X509Certificate toX509Certificate() {
+        X509Certificate current = certificate;
+        if (current == null) {
+            try {
+                current = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(encoded));
+            } catch (final CertificateException e) {
+                throw new RuntimeException(e);
+            }
+            certificate = current;
+        }
+        return current;
+    }
+
+    private X500Principal principal(final int[] element) {
+        return new X500Principal(Arrays.copyOfRange(encoded, element[0], element[1]));
+    }
+
+    @Override
+    public String toString() {
+        return "X509CertificateSummary{serialNumber=" + serialNumber + ", subject=" + getSubjectX500Principal() + ", notAfter=" + notAfter + '}';
+    }
+
+}
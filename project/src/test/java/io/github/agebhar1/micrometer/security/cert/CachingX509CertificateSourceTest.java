@@ -0,0 +1,298 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.MockClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("CachingX509CertificateSource")
+class CachingX509CertificateSourceTest {
+
+    private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+    private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+
+    private final MockClock clock = new MockClock();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final AtomicReference<X509Certificate> current = new AtomicReference<>(AmazonRootCA);
+    private final AtomicBoolean fail = new AtomicBoolean(false);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final X509CertificateSource countingSource = () -> {
+        loads.incrementAndGet();
+        if (fail.get()) {
+            throw new IllegalStateException("unavailable");
+        }
+        return singletonList(current.get());
+    };
+
+    private CachingX509CertificateSource newSource() {
+        return new CachingX509CertificateSource(countingSource, Duration.ofMinutes(1), null, tasks::add, clock);
+    }
+
+    @Nested
+    @DisplayName("constructor")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class Constructor {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificates source is null")
+        public void contractNotNullSource() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new CachingX509CertificateSource(null, Duration.ofMinutes(1)));
+            assertThat(exception).hasMessage("Certificates source must not be null.");
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        @DisplayName("should throw 'IllegalArgumentException' if time to live is not positive")
+        public void contractPositiveTimeToLive(final Duration timeToLive) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new CachingX509CertificateSource(countingSource, timeToLive));
+            assertThat(exception).hasMessage("Time to live must be positive.");
+        }
+
+        Stream<Duration> contractPositiveTimeToLive() {
+            return Stream.of(null, Duration.ZERO, Duration.ofSeconds(-1));
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if max staleness is less than time to live")
+        public void contractMaxStaleNotLessThanTimeToLive() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new CachingX509CertificateSource(countingSource, Duration.ofMinutes(1), Duration.ofSeconds(59), Runnable::run));
+            assertThat(exception).hasMessage("Max staleness must not be less than time to live.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if executor is null")
+        public void contractNotNullExecutor() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new CachingX509CertificateSource(countingSource, Duration.ofMinutes(1), null));
+            assertThat(exception).hasMessage("Executor must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @Test
+        @DisplayName("should serve cached certificates within time to live")
+        public void shouldServeCachedCertificates() {
+
+            final CachingX509CertificateSource source = newSource();
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            current.set(GlobalSignRootCA);
+            clock.add(Duration.ofSeconds(59));
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(loads).hasValue(1);
+            assertThat(tasks).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should serve stale certificates and revalidate once in background after time to live")
+        public void shouldServeStaleAndRevalidate() {
+
+            final CachingX509CertificateSource source = newSource();
+
+            source.readAllCertificates();
+            current.set(GlobalSignRootCA);
+            clock.add(Duration.ofMinutes(1));
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(tasks).hasSize(1);
+
+            tasks.remove(0).run();
+
+            assertThat(source.readAllCertificates()).containsExactly(GlobalSignRootCA);
+            assertThat(loads).hasValue(2);
+            assertThat(tasks).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should keep serving stale certificates if revalidation fails and retry after time to live")
+        public void shouldKeepStaleIfRevalidationFails() {
+
+            final CachingX509CertificateSource source = newSource();
+
+            source.readAllCertificates();
+            fail.set(true);
+            clock.add(Duration.ofMinutes(1));
+
+            source.readAllCertificates();
+            tasks.remove(0).run();
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            clock.add(Duration.ofSeconds(59));
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(tasks).isEmpty();
+
+            clock.add(Duration.ofSeconds(1));
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(tasks).hasSize(1);
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should propagate exception of the source once certificates are stale longer than max staleness")
+        public void shouldPropagateFailureAfterMaxStale() {
+
+            final CachingX509CertificateSource source = new CachingX509CertificateSource(countingSource, Duration.ofMinutes(1), Duration.ofMinutes(5), tasks::add, clock);
+
+            source.readAllCertificates();
+            fail.set(true);
+            clock.add(Duration.ofMinutes(4));
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            tasks.remove(0).run();
+
+            clock.add(Duration.ofMinutes(1));
+            assertThrows(IllegalStateException.class, source::readAllCertificates);
+            assertThat(tasks).isEmpty();
+
+            fail.set(false);
+            current.set(GlobalSignRootCA);
+            assertThat(source.readAllCertificates()).containsExactly(GlobalSignRootCA);
+            assertThat(loads).hasValue(4);
+        }
+
+        @Test
+        @DisplayName("should revalidate on a dedicated daemon thread by default")
+        public void shouldRevalidateOnDedicatedThread() throws InterruptedException {
+
+            final AtomicReference<Thread> revalidatedBy = new AtomicReference<>();
+            final CountDownLatch revalidated = new CountDownLatch(1);
+            final CachingX509CertificateSource source = new CachingX509CertificateSource(() -> {
+                if (loads.getAndIncrement() > 0) {
+                    revalidatedBy.set(Thread.currentThread());
+                    revalidated.countDown();
+                }
+                return singletonList(AmazonRootCA);
+            }, Duration.ofNanos(1));
+
+            source.readAllCertificates();
+            Thread.sleep(1);
+            source.readAllCertificates();
+
+            assertThat(revalidated.await(5, SECONDS)).isTrue();
+            assertThat(revalidatedBy.get().getName()).isEqualTo("x509-certificate-revalidation");
+            assertThat(revalidatedBy.get().isDaemon()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should propagate exception of the initial load and retry on next read")
+        public void shouldPropagateInitialFailure() {
+
+            final CachingX509CertificateSource source = newSource();
+
+            fail.set(true);
+            assertThrows(IllegalStateException.class, source::readAllCertificates);
+
+            fail.set(false);
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should collapse concurrent initial loads into one")
+        public void shouldCollapseConcurrentLoads() throws Exception {
+
+            final CountDownLatch loading = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final CachingX509CertificateSource source = new CachingX509CertificateSource(() -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return singletonList(AmazonRootCA);
+            }, Duration.ofMinutes(1), null, tasks::add, clock);
+
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<?>> reads = new ArrayList<>();
+                reads.add(executor.submit(source::readAllCertificates));
+                assertThat(loading.await(5, SECONDS)).isTrue();
+                for (int i = 0; i < 3; i++) {
+                    reads.add(executor.submit(source::readAllCertificates));
+                }
+                release.countDown();
+                for (final Future<?> read : reads) {
+                    assertThat(read.get(5, SECONDS)).asList().containsExactly(AmazonRootCA);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(loads).hasValue(1);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        @Test
+        @DisplayName("should pass and cache DER parsed summaries of the source")
+        public void shouldCacheSummaries() {
+
+            final CachingX509CertificateSource source = new CachingX509CertificateSource(
+                    X509CertificateUtils.derSummarySource(AmazonRootCA), Duration.ofMinutes(1), null, tasks::add, clock);
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            source.forEachCertificateSummary(summaries::add);
+            source.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries).hasSize(2);
+            assertThat(summaries.get(1)).isSameAs(summaries.get(0));
+            assertThat(summaries).allSatisfy(summary -> assertThat(summary.getEncodedLength()).isPositive());
+        }
+
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("ChangeDetectingX509CertificateSource")
+class ChangeDetectingX509CertificateSourceTest {
+
+    private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final X509CertificateSource countingSource = () -> {
+        loads.incrementAndGet();
+        return singletonList(AmazonRootCA);
+    };
+
+    @Nested
+    @DisplayName("constructor")
+    class Constructor {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if file is null")
+        public void contractNotNullFile() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new ChangeDetectingX509CertificateSource(null, countingSource));
+            assertThat(exception).hasMessage("File must not be null.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificates source is null")
+        public void contractNotNullSource(@TempDir final Path directory) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new ChangeDetectingX509CertificateSource(directory.resolve("trustStore.jks"), null));
+            assertThat(exception).hasMessage("Certificates source must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should return cached certificates as long as modification time and size of the file are unchanged")
+        public void shouldReturnCachedCertificatesIfUnchanged() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, countingSource);
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should load certificates again if the file has changed")
+        public void shouldLoadIfChanged() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, countingSource);
+
+            source.readAllCertificates();
+            Files.write(file, "v2".getBytes(UTF_8));
+            touch(file);
+            source.readAllCertificates();
+
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should load certificates again if only the modification time has changed and content digest is disabled")
+        public void shouldLoadIfTouchedWithoutContentDigest() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, countingSource);
+
+            source.readAllCertificates();
+            touch(file);
+            source.readAllCertificates();
+
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should return cached certificates if only the modification time has changed and content digest is enabled")
+        public void shouldReturnCachedCertificatesIfTouchedWithContentDigest() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, countingSource, true);
+
+            source.readAllCertificates();
+            touch(file);
+            source.readAllCertificates();
+            Files.write(file, "version 2".getBytes(UTF_8));
+            source.readAllCertificates();
+
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should compare the content digest only if modification time or size of the file have changed")
+        public void shouldNotDigestIfUnchangedWithContentDigest() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final FileTime lastModified = Files.getLastModifiedTime(file);
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, countingSource, true);
+
+            source.readAllCertificates();
+            Files.write(file, "v2".getBytes(UTF_8));
+            Files.setLastModifiedTime(file, lastModified);
+            source.readAllCertificates();
+
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should always delegate if the file does not exist")
+        public void shouldDelegateIfFileIsAbsent() {
+
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(directory.resolve("trustStore.jks"), countingSource);
+
+            source.readAllCertificates();
+            source.readAllCertificates();
+
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should not cache if the certificates source fails")
+        public void shouldNotCacheFailure() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final AtomicBoolean fail = new AtomicBoolean(true);
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, () -> {
+                if (fail.getAndSet(false)) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return countingSource.readAllCertificates();
+            });
+
+            assertThrows(IllegalStateException.class, source::readAllCertificates);
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+        }
+
+        private void touch(final Path file) throws IOException {
+            final FileTime lastModified = Files.getLastModifiedTime(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 1000));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should pass and cache DER parsed summaries of the source")
+        public void shouldCacheSummaries() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            final X509CertificateSource source = new ChangeDetectingX509CertificateSource(file, X509CertificateUtils.derSummarySource(AmazonRootCA));
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            source.forEachCertificateSummary(summaries::add);
+            source.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries).hasSize(2);
+            assertThat(summaries.get(1)).isSameAs(summaries.get(0));
+            assertThat(summaries).allSatisfy(summary -> assertThat(summary.getEncodedLength()).isPositive());
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+        }
+
+    }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("ConcurrentX509CertificateSourceComposite")
+class ConcurrentX509CertificateSourceCompositeTest {
+
+    private final Duration anyTimeout = Duration.ofSeconds(10);
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void startup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("of(Executor executor, Duration sourceTimeout, Duration timeout, X509CertificateSource... sources)")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    public class Of {
+
+        @ParameterizedTest
+        @MethodSource
+        @DisplayName("should throw 'IllegalArgumentException' if any of the provides sources is null")
+        public void contractNotNull(final X509CertificateSource... sources) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                    ConcurrentX509CertificateSourceComposite.of(executor, anyTimeout, anyTimeout, sources)
+            );
+            assertThat(exception).hasMessage("Any provided X509Certificate source must be not null");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if executor is null")
+        public void contractNotNullExecutor() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                    ConcurrentX509CertificateSourceComposite.of(null, anyTimeout, anyTimeout)
+            );
+            assertThat(exception).hasMessage("Executor must not be null.");
+        }
+
+        @ParameterizedTest
+        @MethodSource("notPositive")
+        @DisplayName("should throw 'IllegalArgumentException' if timeout of a single source is not positive")
+        public void contractPositiveSourceTimeout(final Duration timeout) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                    ConcurrentX509CertificateSourceComposite.of(executor, timeout, anyTimeout)
+            );
+            assertThat(exception).hasMessage("Timeout of a single X509Certificate source must be positive.");
+        }
+
+        @ParameterizedTest
+        @MethodSource("notPositive")
+        @DisplayName("should throw 'IllegalArgumentException' if timeout is not positive")
+        public void contractPositiveTimeout(final Duration timeout) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                    ConcurrentX509CertificateSourceComposite.of(executor, anyTimeout, timeout)
+            );
+            assertThat(exception).hasMessage("Timeout must be positive.");
+        }
+
+        public Stream<Arguments> contractNotNull() {
+            final X509CertificateSource source = Collections::emptyList;
+            return Stream.of(
+                    Arguments.of((Object) null),
+                    Arguments.of((Object) new X509CertificateSource[]{null, source}),
+                    Arguments.of((Object) new X509CertificateSource[]{source, null})
+            );
+        }
+
+        public Stream<Arguments> notPositive() {
+            return Stream.of(
+                    Arguments.of((Object) null),
+                    Arguments.of(Duration.ZERO),
+                    Arguments.of(Duration.ofSeconds(-1))
+            );
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    public class ReadAllCertificates {
+
+        private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+        private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+        private final X509Certificate SecureGlobalCA = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+
+        @Test
+        @DisplayName("should invoke all provided sources concurrently and return collected certificates")
+        public void shouldInvokeAllProvidedSourcesConcurrently() {
+
+            final CyclicBarrier barrier = new CyclicBarrier(3);
+            final X509CertificateSource composite = ConcurrentX509CertificateSourceComposite.of(executor, anyTimeout, anyTimeout,
+                    awaiting(barrier, AmazonRootCA),
+                    awaiting(barrier, GlobalSignRootCA),
+                    awaiting(barrier, SecureGlobalCA),
+                    Collections::emptyList);
+
+            assertThat(composite.readAllCertificates()).containsExactlyInAnyOrder(AmazonRootCA, GlobalSignRootCA, SecureGlobalCA);
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        @DisplayName("should propagate exception from invoked X509CertificationSource")
+        public void shouldPropagateException(final Collection<X509CertificateSource> sources) {
+
+            final X509CertificateSource composite = ConcurrentX509CertificateSourceComposite.of(executor, anyTimeout, anyTimeout, sources);
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class, composite::readAllCertificates);
+            assertThat(exception).hasMessage("unavailable");
+        }
+
+        @Test
+        @DisplayName("should throw 'RuntimeException' w/ root cause 'TimeoutException' if a single source exceeds its timeout")
+        public void shouldThrowIfSourceTimeoutIsExceeded() {
+
+            final CountDownLatch never = new CountDownLatch(1);
+            final X509CertificateSource composite = ConcurrentX509CertificateSourceComposite.of(executor, Duration.ofMillis(100), anyTimeout,
+                    Collections::emptyList,
+                    blocking(never));
+
+            final RuntimeException exception = assertThrows(RuntimeException.class, composite::readAllCertificates);
+            assertThat(exception)
+                    .hasRootCauseInstanceOf(TimeoutException.class)
+                    .hasMessageContaining("did not complete within PT0.1S");
+        }
+
+        @Test
+        @DisplayName("should throw 'RuntimeException' w/ root cause 'TimeoutException' if all sources exceed the overall timeout")
+        public void shouldThrowIfTimeoutIsExceeded() {
+
+            final CountDownLatch never = new CountDownLatch(1);
+            final X509CertificateSource composite = ConcurrentX509CertificateSourceComposite.of(executor, anyTimeout, Duration.ofMillis(100),
+                    blocking(never),
+                    blocking(never),
+                    blocking(never),
+                    blocking(never),
+                    Collections::emptyList);
+
+            final RuntimeException exception = assertThrows(RuntimeException.class, composite::readAllCertificates);
+            assertThat(exception)
+                    .hasRootCauseInstanceOf(TimeoutException.class)
+                    .hasMessageContaining("X509Certificate sources did not complete within PT0.1S");
+        }
+
+        @Test
+        @DisplayName("should cancel already submitted sources if the executor rejects a source")
+        public void shouldCancelSubmittedSourcesIfRejected() {
+
+            final List<Runnable> submitted = new ArrayList<>();
+            final Executor rejectingSecond = command -> {
+                if (!submitted.isEmpty()) {
+                    throw new RejectedExecutionException("saturated");
+                }
+                submitted.add(command);
+            };
+            final AtomicInteger invocations = new AtomicInteger();
+            final X509CertificateSource counting = () -> {
+                invocations.incrementAndGet();
+                return Collections.emptyList();
+            };
+            final X509CertificateSource composite = ConcurrentX509CertificateSourceComposite.of(rejectingSecond, anyTimeout, anyTimeout, counting, counting);
+
+            assertThrows(RejectedExecutionException.class, composite::readAllCertificates);
+
+            submitted.forEach(Runnable::run);
+            assertThat(submitted).hasSize(1);
+            assertThat(invocations).hasValue(0);
+        }
+
+        public Stream<Arguments> shouldPropagateException() {
+
+            final X509CertificateSource empty = Collections::emptyList;
+            final X509CertificateSource throwing = () -> {
+                throw new IllegalStateException("unavailable");
+            };
+
+            return Stream.of(
+                    Arguments.of(asList(throwing, empty, empty)),
+                    Arguments.of(asList(empty, throwing, empty)),
+                    Arguments.of(asList(empty, empty, throwing))
+            );
+        }
+
+        private X509CertificateSource awaiting(final CyclicBarrier barrier, final X509Certificate certificate) {
+            return () -> {
+                try {
+                    barrier.await(10, SECONDS);
+                } catch (final InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    throw new IllegalStateException(e);
+                }
+                return singletonList(certificate);
+            };
+        }
+
+        private X509CertificateSource blocking(final CountDownLatch latch) {
+            return () -> {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Collections.emptyList();
+            };
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+        private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+
+        @Test
+        @DisplayName("should collect DER parsed summaries of all provided sources")
+        public void shouldCollectSummaries() {
+
+            final X509CertificateSource composite = ConcurrentX509CertificateSourceComposite.of(executor, anyTimeout, anyTimeout,
+                    X509CertificateUtils.derSummarySource(AmazonRootCA),
+                    X509CertificateUtils.derSummarySource(GlobalSignRootCA));
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            composite.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries)
+                    .extracting(X509CertificateSummary::getSerialNumber)
+                    .containsExactlyInAnyOrder(AmazonRootCA.getSerialNumber(), GlobalSignRootCA.getSerialNumber());
+            assertThat(summaries).allSatisfy(summary -> assertThat(summary.getEncodedLength()).isPositive());
+        }
+
+    }
+
+}
@@ -26,6 +26,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -80,6 +82,27 @@ class CustomGlobalTrustStoreX509CertificatesTest {
                             "CN=GlobalSign, O=GlobalSign, OU=GlobalSign Root CA - R6");
         }
 
+        @Test
+        @ClearSystemProperty(key = "javax.net.ssl.trustStore")
+        @SetSystemProperty(key = "javax.net.ssl.trustStorePassword", value = "changeit")
+        @DisplayName("should pass each certificate to action on 'forEachCertificate'")
+        public void shouldPassEachCertificateToAction() {
+
+            final String trustStore = requireNonNull(getClass().getClassLoader().getResource("security/trustStore.jks")).getFile();
+            System.setProperty("javax.net.ssl.trustStore", trustStore);
+
+            final List<X509Certificate> certificates = new ArrayList<>();
+            new CustomGlobalTrustStoreX509Certificates().forEachCertificate(certificates::add);
+
+            assertThat(certificates)
+                    .map(X509Certificate::getSubjectDN)
+                    .map(Principal::getName)
+                    .containsExactlyInAnyOrder(
+                            "CN=Amazon Root CA 4, O=Amazon, C=US",
+                            "CN=Secure Global CA, O=SecureTrust Corporation, C=US",
+                            "CN=GlobalSign, O=GlobalSign, OU=GlobalSign Root CA - R6");
+        }
+
         @Test
         @SetSystemProperty(key = "javax.net.ssl.trustStore", value = "trustStore.jks")
         @SetSystemProperty(key = "javax.net.ssl.trustStorePassword", value = "changeit")
@@ -26,6 +26,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.security.cert.X509Certificate;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -74,4 +75,99 @@ class DefaultX509CertificateMetricTagFactoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Nested
+    @DisplayName("buildTagsFromSummary")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class BuildTagsFromSummary {
+
+        final DefaultX509CertificateMetricTagFactory factory = new DefaultX509CertificateMetricTagFactory();
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificate summary is null")
+        public void contractNotNull() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> factory.buildTagsFromSummary(null));
+            assertThat(exception).hasMessage("Certificate summary must not be null.");
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        @DisplayName("should build same tags from DER parsed summary as from certificate")
+        public void shouldBuildSameTagsAsFromCertificate(final X509Certificate certificate) throws Exception {
+
+            assertThat(factory.buildTagsFromSummary(X509CertificateSummary.parse(certificate.getEncoded())))
+                    .containsExactlyElementsOf(factory.buildTagsFrom(certificate));
+        }
+
+        public Stream<Arguments> shouldBuildSameTagsAsFromCertificate() {
+            return Stream.concat(
+                    Stream.of("ssl/certs/Amazon_Root_CA_4.crt", "ssl/certs/GlobalSign_Root_CA_-_R6.crt", "ssl/certs/Secure_Global_CA.crt")
+                            .map(X509CertificateUtils::loadFromResource),
+                    X509CertificateGenerator.generate(2).stream())
+                    .map(Arguments::of);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("cache")
+    class Cache {
+
+        private final List<X509Certificate> certificates = X509CertificateGenerator.generate(2);
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if maximum cache size is negative")
+        public void contractNotNegativeMaximumCacheSize() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new DefaultX509CertificateMetricTagFactory(-1));
+            assertThat(exception).hasMessage("Maximum cache size must not be negative.");
+        }
+
+        @Test
+        @DisplayName("should return same tags for same subject from certificate and summary")
+        public void shouldReturnCachedTags() throws Exception {
+
+            final DefaultX509CertificateMetricTagFactory factory = new DefaultX509CertificateMetricTagFactory();
+            final X509Certificate certificate = certificates.get(0);
+
+            final Iterable<Tag> tags = factory.buildTagsFrom(certificate);
+
+            assertThat(factory.buildTagsFrom(certificate)).isSameAs(tags);
+            assertThat(factory.buildTagsFromSummary(X509CertificateSummary.parse(certificate.getEncoded()))).isSameAs(tags);
+            assertThat(factory.buildTagsFrom(certificates.get(1))).isNotSameAs(tags);
+        }
+
+        @Test
+        @DisplayName("should evict least recently used tags if maximum cache size is exceeded")
+        public void shouldEvictLeastRecentlyUsedTags() {
+
+            final DefaultX509CertificateMetricTagFactory factory = new DefaultX509CertificateMetricTagFactory(1);
+
+            final Iterable<Tag> tags = factory.buildTagsFrom(certificates.get(0));
+            assertThat(factory.buildTagsFrom(certificates.get(0))).isSameAs(tags);
+
+            factory.buildTagsFrom(certificates.get(1));
+
+            assertThat(factory.buildTagsFrom(certificates.get(0)))
+                    .isNotSameAs(tags)
+                    .isEqualTo(tags);
+        }
+
+        @Test
+        @DisplayName("should not cache tags if maximum cache size is zero")
+        public void shouldNotCacheIfDisabled() {
+
+            final DefaultX509CertificateMetricTagFactory factory = new DefaultX509CertificateMetricTagFactory(0);
+
+            final Iterable<Tag> tags = factory.buildTagsFrom(certificates.get(0));
+
+            assertThat(factory.buildTagsFrom(certificates.get(0)))
+                    .isNotSameAs(tags)
+                    .isEqualTo(tags);
+        }
+
+    }
+
+}
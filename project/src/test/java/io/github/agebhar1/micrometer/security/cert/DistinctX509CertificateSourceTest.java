@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("DistinctX509CertificateSource")
+class DistinctX509CertificateSourceTest {
+
+    private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+    private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+    private final X509Certificate SecureGlobalCA = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+
+    @Test
+    @DisplayName("should throw 'IllegalArgumentException' if certificates source is null")
+    public void contractNotNull() {
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new DistinctX509CertificateSource(null));
+        assertThat(exception).hasMessage("Certificates source must not be null.");
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @Test
+        @DisplayName("should return each certificate of composite sources only once (SHA-256 fingerprint)")
+        public void shouldReturnDistinctCertificates() {
+
+            final X509CertificateSource source = new DistinctX509CertificateSource(X509CertificateSourceComposite.of(
+                    () -> asList(AmazonRootCA, GlobalSignRootCA),
+                    () -> asList(GlobalSignRootCA, SecureGlobalCA, null),
+                    Collections::emptyList,
+                    () -> asList(X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt"), SecureGlobalCA)));
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA, GlobalSignRootCA, SecureGlobalCA);
+        }
+
+        @Test
+        @DisplayName("should not remember certificates between two scans")
+        public void shouldNotRememberCertificatesBetweenScans() {
+
+            final X509CertificateSource source = new DistinctX509CertificateSource(() -> asList(AmazonRootCA, AmazonRootCA));
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificate")
+    class ForEachCertificate {
+
+        @Test
+        @DisplayName("should pass each certificate only once to action")
+        public void shouldPassDistinctCertificates() {
+
+            final X509CertificateSource source = new DistinctX509CertificateSource(() -> asList(SecureGlobalCA, AmazonRootCA, SecureGlobalCA));
+
+            final List<X509Certificate> certificates = new ArrayList<>();
+            source.forEachCertificate(certificates::add);
+
+            assertThat(certificates).containsExactly(SecureGlobalCA, AmazonRootCA);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        @Test
+        @DisplayName("should skip duplicates of DER parsed summaries without converting them")
+        public void shouldSkipDuplicateSummaries() {
+
+            final X509CertificateSource source = new DistinctX509CertificateSource(
+                    X509CertificateUtils.derSummarySource(AmazonRootCA, GlobalSignRootCA, AmazonRootCA));
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            source.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries)
+                    .extracting(X509CertificateSummary::getSerialNumber)
+                    .containsExactly(AmazonRootCA.getSerialNumber(), GlobalSignRootCA.getSerialNumber());
+            assertThat(summaries).allSatisfy(summary -> assertThat(summary.getEncodedLength()).isPositive());
+        }
+
+    }
+
+}
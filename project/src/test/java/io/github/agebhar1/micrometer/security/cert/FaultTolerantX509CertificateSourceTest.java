@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.MockClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("FaultTolerantX509CertificateSource")
+class FaultTolerantX509CertificateSourceTest {
+
+    private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+    private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+
+    private final MockClock clock = new MockClock();
+    private final AtomicBoolean fail = new AtomicBoolean(false);
+    private final AtomicInteger reads = new AtomicInteger();
+    private final X509CertificateSource flakySource = () -> {
+        reads.incrementAndGet();
+        if (fail.get()) {
+            throw new IllegalStateException("unavailable");
+        }
+        return asList(AmazonRootCA, GlobalSignRootCA);
+    };
+
+    @Nested
+    @DisplayName("constructor")
+    class Constructor {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificates source is null")
+        public void contractNotNullSource() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new FaultTolerantX509CertificateSource(null));
+            assertThat(exception).hasMessage("Certificates source must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("builder")
+    class Builder {
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, -1})
+        @DisplayName("should throw 'IllegalArgumentException' if failure threshold is not positive")
+        public void contractPositiveFailureThreshold(final int failureThreshold) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> FaultTolerantX509CertificateSource.builder(flakySource).failureThreshold(failureThreshold));
+            assertThat(exception).hasMessage("Failure threshold must be positive.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if initial backoff is not positive")
+        public void contractPositiveInitialBackoff() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> FaultTolerantX509CertificateSource.builder(flakySource).backoff(Duration.ZERO, Duration.ofMinutes(1)));
+            assertThat(exception).hasMessage("Initial backoff must be positive.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if maximum backoff is less than initial backoff")
+        public void contractMaxBackoffNotLessThanInitial() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> FaultTolerantX509CertificateSource.builder(flakySource).backoff(Duration.ofMinutes(1), Duration.ofSeconds(1)));
+            assertThat(exception).hasMessage("Maximum backoff must not be less than initial backoff.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @Test
+        @DisplayName("should serve last good result if source fails")
+        public void shouldServeLastGoodResult() {
+
+            final X509CertificateSource source = new FaultTolerantX509CertificateSource(flakySource);
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA, GlobalSignRootCA);
+
+            fail.set(true);
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA, GlobalSignRootCA);
+        }
+
+        @Test
+        @DisplayName("should serve no certificates if source fails without any good result")
+        public void shouldServeEmptyResultWithoutGoodResult() {
+
+            fail.set(true);
+            final X509CertificateSource source = new FaultTolerantX509CertificateSource(flakySource);
+
+            assertThat(source.readAllCertificates()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not pass certificates of a partially failed scan")
+        public void shouldNotPassPartialResult() {
+
+            final X509CertificateSource partial = new X509CertificateSource() {
+
+                @Override
+                public List<X509Certificate> readAllCertificates() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+                    action.accept(AmazonRootCA);
+                    throw new IllegalStateException("unavailable");
+                }
+
+            };
+
+            final List<X509Certificate> certificates = new ArrayList<>();
+            new FaultTolerantX509CertificateSource(partial).forEachCertificate(certificates::add);
+
+            assertThat(certificates).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should retry on every read until failure threshold is reached")
+        public void shouldRetryUntilFailureThreshold() {
+
+            final X509CertificateSource source = FaultTolerantX509CertificateSource.builder(flakySource)
+                    .failureThreshold(3)
+                    .clock(clock)
+                    .build();
+
+            fail.set(true);
+            for (int i = 0; i < 5; i++) {
+                source.readAllCertificates();
+            }
+
+            assertThat(reads).hasValue(3);
+        }
+
+        @Test
+        @DisplayName("should retry with exponential backoff while the circuit is open")
+        public void shouldRetryWithExponentialBackoff() {
+
+            final X509CertificateSource source = FaultTolerantX509CertificateSource.builder(flakySource)
+                    .failureThreshold(1)
+                    .backoff(Duration.ofSeconds(1), Duration.ofSeconds(3))
+                    .clock(clock)
+                    .build();
+
+            fail.set(true);
+            source.readAllCertificates();
+            assertThat(reads).hasValue(1);
+
+            clock.add(Duration.ofMillis(999));
+            source.readAllCertificates();
+            assertThat(reads).hasValue(1);
+
+            clock.add(Duration.ofMillis(1));
+            source.readAllCertificates();
+            assertThat(reads).hasValue(2);
+
+            clock.add(Duration.ofMillis(1999));
+            source.readAllCertificates();
+            assertThat(reads).hasValue(2);
+
+            clock.add(Duration.ofMillis(1));
+            source.readAllCertificates();
+            assertThat(reads).hasValue(3);
+
+            clock.add(Duration.ofSeconds(3));
+            source.readAllCertificates();
+            assertThat(reads).hasValue(4);
+        }
+
+        @Test
+        @DisplayName("should close the circuit after a successful retry")
+        public void shouldCloseCircuitOnSuccess() {
+
+            final X509CertificateSource source = FaultTolerantX509CertificateSource.builder(flakySource)
+                    .failureThreshold(1)
+                    .clock(clock)
+                    .build();
+
+            fail.set(true);
+            source.readAllCertificates();
+
+            fail.set(false);
+            clock.add(Duration.ofSeconds(1));
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA, GlobalSignRootCA);
+
+            source.readAllCertificates();
+            assertThat(reads).hasValue(3);
+        }
+
+        @Test
+        @DisplayName("should serve the latest good result")
+        public void shouldServeLatestResult() {
+
+            final List<X509Certificate> current = new ArrayList<>(singletonList(AmazonRootCA));
+            final X509CertificateSource source = new FaultTolerantX509CertificateSource(() -> new ArrayList<>(current));
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+
+            current.add(GlobalSignRootCA);
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA, GlobalSignRootCA);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        @Test
+        @DisplayName("should pass DER parsed summaries of the source")
+        public void shouldPassSummaries() {
+
+            final X509CertificateSource source = new FaultTolerantX509CertificateSource(X509CertificateUtils.derSummarySource(AmazonRootCA, GlobalSignRootCA));
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            source.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries)
+                    .extracting(X509CertificateSummary::getSerialNumber)
+                    .containsExactly(AmazonRootCA.getSerialNumber(), GlobalSignRootCA.getSerialNumber());
+            assertThat(summaries).allSatisfy(summary -> assertThat(summary.getEncodedLength()).isPositive());
+        }
+
+    }
+
+}
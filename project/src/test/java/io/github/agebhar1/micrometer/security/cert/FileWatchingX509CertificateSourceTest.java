@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("FileWatchingX509CertificateSource")
+class FileWatchingX509CertificateSourceTest {
+
+    private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final X509CertificateSource countingSource = () -> {
+        loads.incrementAndGet();
+        return singletonList(AmazonRootCA);
+    };
+
+    @Nested
+    @DisplayName("watch")
+    class Watch {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if file is null")
+        public void contractNotNullFile() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> FileWatchingX509CertificateSource.watch(null, countingSource));
+            assertThat(exception).hasMessage("File to watch must not be null.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificates source is null")
+        public void contractNotNullSource(@TempDir final Path directory) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> FileWatchingX509CertificateSource.watch(directory.resolve("trustStore.jks"), null));
+            assertThat(exception).hasMessage("Certificates source must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should load certificates only once as long as the file does not change")
+        public void shouldLoadOnlyOnceIfUnchanged() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, countingSource)) {
+
+                assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+                assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+                Files.write(directory.resolve("unrelated.txt"), "unrelated".getBytes(UTF_8));
+                assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA);
+
+                assertThat(loads).hasValue(1);
+            }
+        }
+
+        @Test
+        @DisplayName("should notify listeners and reload certificates if the file is modified")
+        public void shouldReloadIfModified() throws Exception {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, countingSource)) {
+
+                final Semaphore changes = new Semaphore(0);
+                source.addChangeListener(changes::release);
+                source.readAllCertificates();
+
+                Files.write(file, "version 2".getBytes(UTF_8));
+
+                assertThat(changes.tryAcquire(10, SECONDS)).isTrue();
+                source.readAllCertificates();
+                assertThat(loads).hasValue(2);
+            }
+        }
+
+        @Test
+        @DisplayName("should notify listeners if the file is replaced by an atomic rename")
+        public void shouldReloadIfReplacedByAtomicRename() throws Exception {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, countingSource)) {
+
+                final Semaphore changes = new Semaphore(0);
+                source.addChangeListener(changes::release);
+
+                final Path tmp = Files.write(directory.resolve("trustStore.jks.tmp"), "v2".getBytes(UTF_8));
+                Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+
+                assertThat(changes.tryAcquire(10, SECONDS)).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("should notify listeners if a symbolic link of the file path is swapped (e.g. Kubernetes ConfigMap/Secret volume)")
+        public void shouldReloadIfSymbolicLinkIsSwapped() throws Exception {
+
+            final Path v1 = Files.createDirectory(directory.resolve("..v1"));
+            final Path v2 = Files.createDirectory(directory.resolve("..v2"));
+            Files.write(v1.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            Files.write(v2.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+
+            final Path data = Files.createSymbolicLink(directory.resolve("..data"), Paths.get("..v1"));
+            final Path file = Files.createSymbolicLink(directory.resolve("trustStore.jks"), Paths.get("..data", "trustStore.jks"));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, countingSource)) {
+
+                final Semaphore changes = new Semaphore(0);
+                source.addChangeListener(changes::release);
+
+                final Path tmp = Files.createSymbolicLink(directory.resolve("..data_tmp"), Paths.get("..v2"));
+                Files.move(tmp, data, ATOMIC_MOVE, REPLACE_EXISTING);
+
+                assertThat(changes.tryAcquire(10, SECONDS)).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("should stop watching the previous target directory after a symbolic link swap")
+        public void shouldUnwatchPreviousDirectoryIfSymbolicLinkIsSwapped() throws Exception {
+
+            final Path v1 = Files.createDirectory(directory.resolve("..v1"));
+            final Path v2 = Files.createDirectory(directory.resolve("..v2"));
+            final Path v3 = Files.createDirectory(directory.resolve("..v3"));
+            Files.write(v1.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+            Files.write(v2.resolve("trustStore.jks"), "v2".getBytes(UTF_8));
+            Files.write(v3.resolve("trustStore.jks"), "v3".getBytes(UTF_8));
+
+            final Path data = Files.createSymbolicLink(directory.resolve("..data"), Paths.get("..v1"));
+            final Path file = Files.createSymbolicLink(directory.resolve("trustStore.jks"), Paths.get("..data", "trustStore.jks"));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, countingSource)) {
+
+                final Semaphore changes = new Semaphore(0);
+                source.addChangeListener(changes::release);
+                assertThat(source.watchedDirectories()).isEqualTo(2);
+
+                Files.move(Files.createSymbolicLink(directory.resolve("..data_tmp"), Paths.get("..v2")), data, ATOMIC_MOVE, REPLACE_EXISTING);
+                assertThat(changes.tryAcquire(10, SECONDS)).isTrue();
+                assertThat(source.watchedDirectories()).isEqualTo(2);
+
+                Files.move(Files.createSymbolicLink(directory.resolve("..data_tmp"), Paths.get("..v3")), data, ATOMIC_MOVE, REPLACE_EXISTING);
+                assertThat(changes.tryAcquire(10, SECONDS)).isTrue();
+                assertThat(source.watchedDirectories()).isEqualTo(2);
+            }
+        }
+
+        @Test
+        @DisplayName("should not notify listeners if the file is touched without change")
+        public void shouldNotNotifyIfUnchanged() throws Exception {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, countingSource)) {
+
+                final Semaphore changes = new Semaphore(0);
+                source.addChangeListener(changes::release);
+
+                Files.setLastModifiedTime(file, Files.getLastModifiedTime(file));
+
+                assertThat(changes.tryAcquire(500, MILLISECONDS)).isFalse();
+            }
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should pass and cache DER parsed summaries of the source")
+        public void shouldCacheSummaries() throws IOException {
+
+            final Path file = Files.write(directory.resolve("trustStore.jks"), "v1".getBytes(UTF_8));
+
+            try (FileWatchingX509CertificateSource source = FileWatchingX509CertificateSource.watch(file, X509CertificateUtils.derSummarySource(AmazonRootCA))) {
+
+                final List<X509CertificateSummary> summaries = new ArrayList<>();
+                source.forEachCertificateSummary(summaries::add);
+                source.forEachCertificateSummary(summaries::add);
+
+                assertThat(summaries).hasSize(2);
+                assertThat(summaries.get(1)).isSameAs(summaries.get(0));
+                assertThat(summaries).allSatisfy(summary -> assertThat(summary.getEncodedLength()).isPositive());
+            }
+        }
+
+    }
+
+}
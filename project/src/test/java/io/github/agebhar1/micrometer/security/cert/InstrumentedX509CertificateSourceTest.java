@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("InstrumentedX509CertificateSource")
+class InstrumentedX509CertificateSourceTest {
+
+    private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+    private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+
+    private final MockClock clock = new MockClock();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+
+    @Nested
+    @DisplayName("constructor")
+    class Constructor {
+
+        @ParameterizedTest
+        @NullAndEmptySource
+        @DisplayName("should throw 'IllegalArgumentException' if name is null or empty")
+        public void contractNotEmptyName(final String name) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new InstrumentedX509CertificateSource(name, () -> asList(AmazonRootCA)));
+            assertThat(exception).hasMessage("Name of certificates source must not be empty.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificates source is null")
+        public void contractNotNullSource() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new InstrumentedX509CertificateSource("truststore", null));
+            assertThat(exception).hasMessage("Certificates source must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("bindTo")
+    class BindTo {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if registry is null")
+        public void contractNotNullRegistry() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new InstrumentedX509CertificateSource("truststore", () -> asList(AmazonRootCA)).bindTo(null));
+            assertThat(exception).hasMessage("MeterRegistry must not be null.");
+        }
+
+        @Test
+        @DisplayName("should report no last successful scan before the first scan")
+        public void shouldReportNaNBeforeFirstScan() {
+
+            new InstrumentedX509CertificateSource("truststore", () -> asList(AmazonRootCA), clock).bindTo(registry);
+
+            assertThat(registry.get(InstrumentedX509CertificateSource.LastSuccessName).tag("source", "truststore").gauge().value()).isNaN();
+            assertThat(registry.get(InstrumentedX509CertificateSource.ScanName).tag("source", "truststore").timer().count()).isZero();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @Test
+        @DisplayName("should record duration, certificates and time of successful scans")
+        public void shouldRecordSuccessfulScans() {
+
+            final InstrumentedX509CertificateSource source = new InstrumentedX509CertificateSource("truststore", () -> {
+                clock.add(Duration.ofSeconds(2));
+                return asList(AmazonRootCA, null, GlobalSignRootCA);
+            }, clock);
+            source.bindTo(registry);
+
+            assertThat(source.readAllCertificates()).containsExactly(AmazonRootCA, null, GlobalSignRootCA);
+            assertThat(source.readAllCertificates()).hasSize(3);
+
+            assertThat(registry.get(InstrumentedX509CertificateSource.ScanName).tag("source", "truststore").timer())
+                    .satisfies(timer -> {
+                        assertThat(timer.count()).isEqualTo(2);
+                        assertThat(timer.totalTime(SECONDS)).isEqualTo(4);
+                    });
+            assertThat(registry.get(InstrumentedX509CertificateSource.CertificatesName).tag("source", "truststore").counter().count())
+                    .isEqualTo(4);
+            assertThat(registry.get(InstrumentedX509CertificateSource.LastSuccessName).tag("source", "truststore").gauge().value())
+                    .isEqualTo(clock.wallTime() / 1000.0);
+        }
+
+        @Test
+        @DisplayName("should not record the time spent in the consumer as scan duration")
+        public void shouldNotRecordConsumerTime() {
+
+            final InstrumentedX509CertificateSource source = new InstrumentedX509CertificateSource("truststore", () -> {
+                clock.add(Duration.ofSeconds(2));
+                return asList(AmazonRootCA, GlobalSignRootCA);
+            }, clock);
+            source.bindTo(registry);
+
+            source.forEachCertificate(certificate -> clock.add(Duration.ofSeconds(5)));
+
+            assertThat(registry.get(InstrumentedX509CertificateSource.ScanName).tag("source", "truststore").timer().totalTime(SECONDS))
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should record failed scans tagged by exception and propagate the exception")
+        public void shouldRecordFailedScans() {
+
+            final AtomicBoolean fail = new AtomicBoolean(false);
+            final InstrumentedX509CertificateSource source = new InstrumentedX509CertificateSource("truststore", () -> {
+                if (fail.get()) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return asList(AmazonRootCA);
+            }, clock);
+            source.bindTo(registry);
+
+            source.readAllCertificates();
+            final double lastSuccess = registry.get(InstrumentedX509CertificateSource.LastSuccessName).gauge().value();
+
+            fail.set(true);
+            clock.add(Duration.ofMinutes(1));
+            assertThrows(IllegalStateException.class, source::readAllCertificates);
+
+            assertThat(registry.get(InstrumentedX509CertificateSource.FailuresName)
+                    .tag("source", "truststore")
+                    .tag("exception", "IllegalStateException")
+                    .counter()
+                    .count())
+                    .isEqualTo(1);
+            assertThat(registry.get(InstrumentedX509CertificateSource.LastSuccessName).gauge().value()).isEqualTo(lastSuccess);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    class ForEachCertificateSummary {
+
+        @Test
+        @DisplayName("should record certificates of DER parsed summaries")
+        public void shouldRecordSummaries() throws Exception {
+
+            final X509CertificateSource delegate = new X509CertificateSource() {
+
+                @Override
+                public List<X509Certificate> readAllCertificates() {
+                    return asList(AmazonRootCA);
+                }
+
+                @Override
+                public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+                    try {
+                        action.accept(X509CertificateSummary.parse(AmazonRootCA.getEncoded()));
+                    } catch (final Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+            };
+
+            final InstrumentedX509CertificateSource source = new InstrumentedX509CertificateSource("bundle", delegate, clock);
+            source.bindTo(registry);
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            source.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries).hasSize(1);
+            assertThat(registry.get(InstrumentedX509CertificateSource.CertificatesName).tag("source", "bundle").counter().count())
+                    .isEqualTo(1);
+        }
+
+    }
+
+}
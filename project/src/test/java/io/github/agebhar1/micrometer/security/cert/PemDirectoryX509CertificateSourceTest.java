@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("PemDirectoryX509CertificateSource")
+class PemDirectoryX509CertificateSourceTest {
+
+    private final List<X509Certificate> certificates = X509CertificateGenerator.generate(4);
+
+    @Nested
+    @DisplayName("constructor")
+    class Constructor {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if directory is null")
+        public void contractNotNullDirectory() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new PemDirectoryX509CertificateSource(null));
+            assertThat(exception).hasMessage("Directory must not be null.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if executor is null")
+        public void contractNotNullExecutor(@TempDir final Path directory) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new PemDirectoryX509CertificateSource(directory, null));
+            assertThat(exception).hasMessage("Executor must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("readAllCertificates")
+    class ReadAllCertificates {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should read certificates of all PEM/DER files ordered by file name and ignore other files")
+        public void shouldReadAllCertificateFiles() throws IOException {
+
+            X509CertificateGenerator.writePemBundle(directory.resolve("b.pem"), certificates.subList(1, 3));
+            X509CertificateGenerator.writePemBundle(directory.resolve("a.crt"), singletonList(certificates.get(0)));
+            Files.write(directory.resolve("c.CER"), encoded(certificates.get(3)));
+            Files.write(directory.resolve("README"), "not a certificate".getBytes(UTF_8));
+            Files.createDirectory(directory.resolve("d.pem"));
+
+            assertThat(new PemDirectoryX509CertificateSource(directory).readAllCertificates()).containsExactlyElementsOf(certificates);
+        }
+
+        @Test
+        @DisplayName("should decode only files which were added or changed since the last scan")
+        public void shouldDecodeOnlyAddedOrChangedFiles() throws IOException {
+
+            final Path a = X509CertificateGenerator.writePemBundle(directory.resolve("a.pem"), singletonList(certificates.get(0)));
+            final Path b = X509CertificateGenerator.writePemBundle(directory.resolve("b.pem"), singletonList(certificates.get(1)));
+            final AtomicInteger decodes = new AtomicInteger();
+            final PemDirectoryX509CertificateSource source = new PemDirectoryX509CertificateSource(directory, command -> {
+                decodes.incrementAndGet();
+                command.run();
+            });
+
+            assertThat(source.readAllCertificates()).containsExactly(certificates.get(0), certificates.get(1));
+            assertThat(decodes).hasValue(2);
+
+            assertThat(source.readAllCertificates()).containsExactly(certificates.get(0), certificates.get(1));
+            assertThat(decodes).hasValue(2);
+
+            X509CertificateGenerator.writePemBundle(directory.resolve("c.pem"), singletonList(certificates.get(2)));
+            X509CertificateGenerator.writePemBundle(b, singletonList(certificates.get(3)));
+            Files.setLastModifiedTime(b, FileTime.fromMillis(Files.getLastModifiedTime(b).toMillis() + 2000));
+            Files.delete(a);
+
+            assertThat(source.readAllCertificates()).containsExactly(certificates.get(3), certificates.get(2));
+            assertThat(decodes).hasValue(4);
+        }
+
+        @Test
+        @DisplayName("should not decode a file again if modification time and size are unchanged")
+        public void shouldNotDecodeUnchangedFile() throws IOException {
+
+            final Path a = X509CertificateGenerator.writePemBundle(directory.resolve("a.pem"), singletonList(certificates.get(0)));
+            final FileTime lastModified = Files.getLastModifiedTime(a);
+            final PemDirectoryX509CertificateSource source = new PemDirectoryX509CertificateSource(directory);
+
+            assertThat(source.readAllCertificates()).containsExactly(certificates.get(0));
+
+            final byte[] garbage = new byte[(int) Files.size(a)];
+            Arrays.fill(garbage, (byte) 'x');
+            Files.write(a, garbage, WRITE, TRUNCATE_EXISTING);
+            Files.setLastModifiedTime(a, lastModified);
+
+            assertThat(source.readAllCertificates()).containsExactly(certificates.get(0));
+        }
+
+        @Test
+        @DisplayName("should skip files which can not be decoded")
+        public void shouldSkipInvalidFiles() throws IOException {
+
+            X509CertificateGenerator.writePemBundle(directory.resolve("a.pem"), singletonList(certificates.get(0)));
+            Files.write(directory.resolve("b.pem"), "-----BEGIN CERTIFICATE-----\ninvalid\n-----END CERTIFICATE-----\n".getBytes(UTF_8));
+
+            assertThat(new PemDirectoryX509CertificateSource(directory).readAllCertificates()).containsExactly(certificates.get(0));
+        }
+
+        @Test
+        @DisplayName("should throw 'RuntimeException' if directory does not exist")
+        public void shouldThrowIfDirectoryDoesNotExist() {
+
+            final PemDirectoryX509CertificateSource source = new PemDirectoryX509CertificateSource(directory.resolve("absent"));
+
+            final RuntimeException exception = assertThrows(RuntimeException.class, source::readAllCertificates);
+            assertThat(exception).hasCauseInstanceOf(IOException.class);
+        }
+
+        @Test
+        @DisplayName("should decode on own daemon threads which are shut down on close")
+        public void shouldDecodeOnOwnDaemonThreads() throws IOException {
+
+            X509CertificateGenerator.writePemBundle(directory.resolve("a.pem"), singletonList(certificates.get(0)));
+            final PemDirectoryX509CertificateSource source = new PemDirectoryX509CertificateSource(directory);
+            final List<Thread> decodedBy = new ArrayList<>();
+            try (PemDirectoryX509CertificateSource ignored = source) {
+                source.readAllCertificates();
+                Thread.getAllStackTraces().keySet().stream()
+                        .filter(thread -> thread.getName().startsWith("x509-certificate-pem-decoder-"))
+                        .forEach(decodedBy::add);
+            }
+
+            assertThat(decodedBy).isNotEmpty().allMatch(Thread::isDaemon);
+            X509CertificateGenerator.writePemBundle(directory.resolve("b.pem"), singletonList(certificates.get(1)));
+            assertThrows(RejectedExecutionException.class, source::readAllCertificates);
+        }
+
+        @Test
+        @DisplayName("should not shut down a provided executor on close")
+        public void shouldNotShutDownProvidedExecutor() {
+
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                new PemDirectoryX509CertificateSource(directory, executor).close();
+                assertThat(executor.isShutdown()).isFalse();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+    }
+
+    private static byte[] encoded(final X509Certificate certificate) {
+        try {
+            return certificate.getEncoded();
+        } catch (final CertificateEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import io.github.agebhar1.micrometer.security.cert.TemplateX509CertificateMetricTagFactory.Field;
+import io.micrometer.core.instrument.Tag;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.security.cert.X509Certificate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TemplateX509CertificateMetricTagFactory")
+class TemplateX509CertificateMetricTagFactoryTest {
+
+    private final X509Certificate certificate = X509CertificateGenerator.builder()
+            .chainDepth(2)
+            .count(2)
+            .dnsNames("example.org", "www.example.org")
+            .generate()
+            .get(1);
+
+    @Nested
+    @DisplayName("builder")
+    class Builder {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if tag key is empty")
+        public void contractNotEmptyKey() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.builder().tag("", Field.SubjectCN));
+            assertThat(exception).hasMessage("Tag key must not be empty.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if tag field is null")
+        public void contractNotNullField() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.builder().tag("cn", null));
+            assertThat(exception).hasMessage("Tag field must not be null.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if tag key is duplicated")
+        public void contractUniqueKey() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.builder().tag("cn", Field.SubjectCN).tag("cn", Field.IssuerCN));
+            assertThat(exception).hasMessage("Duplicate tag key 'cn'.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if no tag is configured")
+        public void contractNotEmpty() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.builder().build());
+            assertThat(exception).hasMessage("At least one tag must be configured.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("of")
+    class Of {
+
+        @Test
+        @DisplayName("should compile template of comma separated '<key>=<field>' pairs")
+        public void shouldCompileTemplate() {
+
+            final TemplateX509CertificateMetricTagFactory factory = TemplateX509CertificateMetricTagFactory.of("cn = subjectCN, issuer=IssuerCN");
+
+            assertThat(factory.buildTagsFrom(certificate)).containsExactlyInAnyOrder(Tag.of("cn", "Certificate 1"), Tag.of("issuer", "Certificate 0"));
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' for unknown field")
+        public void shouldThrowForUnknownField() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.of("cn=commonName"));
+            assertThat(exception).hasMessage("Unknown tag field 'commonName'.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' for invalid template")
+        public void shouldThrowForInvalidTemplate() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.of("cn=SubjectCN,IssuerCN"));
+            assertThat(exception).hasMessage("Invalid tag template 'IssuerCN', expected '<key>=<field>'.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("buildTagsFrom")
+    class BuildTagsFrom {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificate is null")
+        public void contractNotNull() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.of("cn=SubjectCN").buildTagsFrom(null));
+            assertThat(exception).hasMessage("Certificate must not be null.");
+        }
+
+        @Test
+        @DisplayName("should build tags of all fields")
+        public void shouldBuildTagsOfAllFields() throws Exception {
+
+            final TemplateX509CertificateMetricTagFactory.Builder builder = TemplateX509CertificateMetricTagFactory.builder();
+            for (final Field field : Field.values()) {
+                builder.tag(field.name(), field);
+            }
+
+            assertThat(builder.build().buildTagsFrom(certificate)).containsExactlyInAnyOrder(
+                    Tag.of("SubjectDN", "CN=Certificate 1, O=micrometer-certs-expiration"),
+                    Tag.of("SubjectCN", "Certificate 1"),
+                    Tag.of("IssuerDN", "CN=Certificate 0, O=micrometer-certs-expiration"),
+                    Tag.of("IssuerCN", "Certificate 0"),
+                    Tag.of("SerialNumber", "2"),
+                    Tag.of("Sha256Fingerprint", hex(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()))),
+                    Tag.of("SubjectAlternativeDnsNames", "example.org,www.example.org"),
+                    Tag.of("KeyAlgorithm", "EC"));
+        }
+
+        @Test
+        @DisplayName("should build empty tag value if certificate has no common name or subject alternative names")
+        public void shouldBuildEmptyTagValues() {
+
+            final X509Certificate certificate = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+            final TemplateX509CertificateMetricTagFactory factory = TemplateX509CertificateMetricTagFactory.of("san=SubjectAlternativeDnsNames,cn=SubjectCN");
+
+            assertThat(factory.buildTagsFrom(certificate)).containsExactlyInAnyOrder(Tag.of("san", ""), Tag.of("cn", "Secure Global CA"));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("buildTagsFromSummary")
+    class BuildTagsFromSummary {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificate summary is null")
+        public void contractNotNull() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> TemplateX509CertificateMetricTagFactory.of("cn=SubjectCN").buildTagsFromSummary(null));
+            assertThat(exception).hasMessage("Certificate summary must not be null.");
+        }
+
+        @Test
+        @DisplayName("should build tags from DER parsed summary without decoding the certificate if all fields are available")
+        public void shouldBuildTagsFromSummary() throws Exception {
+
+            final X509CertificateSummary summary = X509CertificateSummary.parse(certificate.getEncoded());
+            final TemplateX509CertificateMetricTagFactory factory = TemplateX509CertificateMetricTagFactory.of(
+                    "subject=SubjectDN,cn=SubjectCN,issuer=IssuerDN,issuerCN=IssuerCN,serial=SerialNumber,sha256=Sha256Fingerprint");
+
+            assertThat(factory.buildTagsFromSummary(summary)).containsExactlyElementsOf(factory.buildTagsFrom(certificate));
+        }
+
+        @Test
+        @DisplayName("should build SHA-256 fingerprint from DER encoding of summary")
+        public void shouldBuildFingerprintFromSummary() throws Exception {
+
+            final X509CertificateSummary summary = X509CertificateSummary.parse(certificate.getEncoded());
+            final TemplateX509CertificateMetricTagFactory factory = TemplateX509CertificateMetricTagFactory.of("sha256=Sha256Fingerprint");
+
+            assertThat(factory.buildTagsFromSummary(summary))
+                    .containsExactly(Tag.of("sha256", hex(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()))));
+        }
+
+        @Test
+        @DisplayName("should build tags from decoded certificate if any field is not available from summary")
+        public void shouldBuildTagsFromDecodedCertificate() throws Exception {
+
+            final X509CertificateSummary summary = X509CertificateSummary.parse(certificate.getEncoded());
+            final TemplateX509CertificateMetricTagFactory factory = TemplateX509CertificateMetricTagFactory.of("cn=SubjectCN,algorithm=KeyAlgorithm");
+
+            assertThat(factory.buildTagsFromSummary(summary)).containsExactlyInAnyOrder(Tag.of("cn", "Certificate 1"), Tag.of("algorithm", "EC"));
+        }
+
+    }
+
+    private static String hex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+}
@@ -15,7 +15,14 @@
  */
 package io.github.agebhar1.micrometer.security.cert;
 
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MockClock;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -23,17 +30,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -158,6 +177,32 @@ class X509CertificateExpirationMetricsTest {
 
         }
 
+        @Test
+        @DisplayName("should consume certificates one by one from source")
+        public void shouldConsumeCertificatesFromSource() {
+
+            final X509CertificateSource source = new X509CertificateSource() {
+
+                @Override
+                public Collection<X509Certificate> readAllCertificates() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+                    certificates().forEach(action);
+                }
+
+            };
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new X509CertificateExpirationMetrics(new DefaultX509CertificateMetricTagFactory(), source).bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .hasSize(3);
+
+        }
+
         public Stream<X509Certificate> certificates() {
             return Stream.of("ssl/certs/Amazon_Root_CA_4.crt", "ssl/certs/GlobalSign_Root_CA_-_R6.crt", "ssl/certs/Secure_Global_CA.crt")
                     .map(X509CertificateUtils::loadFromResource);
@@ -169,4 +214,1005 @@ class X509CertificateExpirationMetricsTest {
 
     }
 
+    @Nested
+    @DisplayName("refresh")
+    class Refresh {
+
+        private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+        private final X509Certificate GlobalSignRootCA = X509CertificateUtils.loadFromResource("ssl/certs/GlobalSign_Root_CA_-_R6.crt");
+        private final X509Certificate SecureGlobalCA = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+
+        private final X509CertificateMetricTagFactory metricTagFactory = new DefaultX509CertificateMetricTagFactory();
+
+        @Test
+        @DisplayName("should register gauges for new certificates and remove gauges of vanished certificates in all bound registries")
+        public void shouldReconcileGauges() {
+
+            final List<X509Certificate> certificates = new ArrayList<>(asList(AmazonRootCA, GlobalSignRootCA));
+
+            final SimpleMeterRegistry first = new SimpleMeterRegistry();
+            final SimpleMeterRegistry second = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> new ArrayList<>(certificates));
+
+            metrics.bindTo(first);
+            metrics.bindTo(second);
+
+            certificates.remove(GlobalSignRootCA);
+            certificates.add(SecureGlobalCA);
+
+            metrics.refresh();
+
+            for (final SimpleMeterRegistry registry : asList(first, second)) {
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                        .extracting(gauge -> gauge.getId().getTag("subjectDN"))
+                        .containsExactlyInAnyOrder(
+                                AmazonRootCA.getSubjectDN().getName(),
+                                SecureGlobalCA.getSubjectDN().getName());
+            }
+        }
+
+        @Test
+        @DisplayName("should only register and remove gauges of changed certificates")
+        public void shouldOnlyReconcileDelta() {
+
+            final List<X509Certificate> certificates = X509CertificateGenerator.generate(5);
+            final List<X509Certificate> current = new ArrayList<>(certificates.subList(0, 4));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> new ArrayList<>(current));
+            metrics.bindTo(registry);
+
+            final Gauge unchanged = registry.get(X509CertificateExpirationMetrics.Name)
+                    .tag("subjectDN", certificates.get(0).getSubjectDN().getName())
+                    .gauge();
+
+            final AtomicInteger added = new AtomicInteger();
+            final AtomicInteger removed = new AtomicInteger();
+            registry.config().onMeterAdded(meter -> added.incrementAndGet());
+            registry.config().onMeterRemoved(meter -> removed.incrementAndGet());
+
+            current.remove(certificates.get(1));
+            current.add(certificates.get(4));
+            metrics.refresh();
+
+            assertThat(added).hasValue(1);
+            assertThat(removed).hasValue(1);
+            assertThat(registry.get(X509CertificateExpirationMetrics.Name)
+                    .tag("subjectDN", certificates.get(0).getSubjectDN().getName())
+                    .gauge())
+                    .isSameAs(unchanged);
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .extracting(Gauge::value)
+                    .containsExactlyInAnyOrder(
+                            (double) certificates.get(0).getNotAfter().toInstant().getEpochSecond(),
+                            (double) certificates.get(2).getNotAfter().toInstant().getEpochSecond(),
+                            (double) certificates.get(3).getNotAfter().toInstant().getEpochSecond(),
+                            (double) certificates.get(4).getNotAfter().toInstant().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should reuse slots of vanished certificates within the same refresh")
+        public void shouldReuseSlotsOfVanishedCertificates() {
+
+            final List<X509Certificate> certificates = X509CertificateGenerator.generate(8);
+            final List<X509Certificate> current = new ArrayList<>(certificates.subList(0, 4));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> new ArrayList<>(current));
+            metrics.bindTo(registry);
+
+            final Gauge vanished = registry.get(X509CertificateExpirationMetrics.Name)
+                    .tag("subjectDN", certificates.get(0).getSubjectDN().getName())
+                    .gauge();
+
+            current.clear();
+            current.addAll(certificates.subList(4, 8));
+            metrics.refresh();
+
+            assertThat(metrics.capacity()).isEqualTo(4);
+            assertThat(vanished.value()).isNaN();
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .extracting(Gauge::value)
+                    .containsExactlyInAnyOrder(certificates.subList(4, 8).stream()
+                            .map(certificate -> (double) certificate.getNotAfter().toInstant().getEpochSecond())
+                            .toArray(Double[]::new));
+        }
+
+        @Test
+        @DisplayName("should neither register nor remove gauges if certificates are unchanged")
+        public void shouldNotReconcileIfUnchanged() {
+
+            final List<X509Certificate> certificates = X509CertificateGenerator.generate(3);
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> certificates);
+            metrics.bindTo(registry);
+
+            final AtomicInteger changes = new AtomicInteger();
+            registry.config().onMeterAdded(meter -> changes.incrementAndGet());
+            registry.config().onMeterRemoved(meter -> changes.incrementAndGet());
+
+            metrics.refresh();
+
+            assertThat(changes).hasValue(0);
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("should update gauge value in place if certificate is replaced by one with same tags")
+        public void shouldUpdateGaugeValueOfRotatedCertificate() {
+
+            final AtomicReference<X509Certificate> certificate = new AtomicReference<>(AmazonRootCA);
+            final X509CertificateMetricTagFactory metricTagFactory = __ -> singletonList(Tag.of("key", "value"));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> singletonList(certificate.get()));
+
+            metrics.bindTo(registry);
+            final Gauge gauge = registry.get(X509CertificateExpirationMetrics.Name).gauge();
+
+            certificate.set(SecureGlobalCA);
+            metrics.refresh();
+
+            assertThat(registry.get(X509CertificateExpirationMetrics.Name).gauge())
+                    .isSameAs(gauge)
+                    .extracting(Gauge::value)
+                    .isEqualTo((double) SecureGlobalCA.getNotAfter().toInstant().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should report previous values without blocking while a refresh is in progress")
+        public void shouldNotBlockCollectionWhileRefreshing() throws Exception {
+
+            final CountDownLatch scanning = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final AtomicBoolean block = new AtomicBoolean(false);
+            final X509CertificateSource source = () -> {
+                if (block.get()) {
+                    scanning.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return singletonList(SecureGlobalCA);
+                }
+                return singletonList(AmazonRootCA);
+            };
+            final X509CertificateMetricTagFactory metricTagFactory = __ -> singletonList(Tag.of("key", "value"));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, source);
+            metrics.bindTo(registry);
+
+            block.set(true);
+            final Thread refresh = new Thread(metrics::refresh);
+            refresh.start();
+            try {
+                assertThat(scanning.await(5, SECONDS)).isTrue();
+                assertThat(registry.get(X509CertificateExpirationMetrics.Name).gauge().value())
+                        .isEqualTo((double) AmazonRootCA.getNotAfter().toInstant().getEpochSecond());
+            } finally {
+                release.countDown();
+                refresh.join(SECONDS.toMillis(5));
+            }
+
+            assertThat(registry.get(X509CertificateExpirationMetrics.Name).gauge().value())
+                    .isEqualTo((double) SecureGlobalCA.getNotAfter().toInstant().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should report all gauges of a collection from the same snapshot")
+        public void shouldPinSnapshotPerCollection() {
+
+            final List<X509Certificate> certificates = new ArrayList<>(asList(AmazonRootCA, GlobalSignRootCA));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> new ArrayList<>(certificates));
+            metrics.bindTo(registry);
+
+            final Gauge amazon = registry.get(X509CertificateExpirationMetrics.Name).tag("subjectDN", AmazonRootCA.getSubjectDN().getName()).gauge();
+            final Gauge globalSign = registry.get(X509CertificateExpirationMetrics.Name).tag("subjectDN", GlobalSignRootCA.getSubjectDN().getName()).gauge();
+
+            assertThat(amazon.value()).isEqualTo((double) AmazonRootCA.getNotAfter().toInstant().getEpochSecond());
+            certificates.set(1, SecureGlobalCA);
+            metrics.refresh();
+            final Gauge secureGlobal = registry.get(X509CertificateExpirationMetrics.Name).tag("subjectDN", SecureGlobalCA.getSubjectDN().getName()).gauge();
+
+            assertThat(globalSign.value()).isEqualTo((double) GlobalSignRootCA.getNotAfter().toInstant().getEpochSecond());
+
+            assertThat(secureGlobal.value()).isEqualTo((double) SecureGlobalCA.getNotAfter().toInstant().getEpochSecond());
+            assertThat(globalSign.value()).isNaN();
+            assertThat(amazon.value()).isEqualTo((double) AmazonRootCA.getNotAfter().toInstant().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should report NaN for gauges of vanished certificates which are still referenced")
+        public void shouldReportNaNForRemovedGauges() {
+
+            final List<X509Certificate> certificates = new ArrayList<>(asList(AmazonRootCA, GlobalSignRootCA));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> new ArrayList<>(certificates));
+            metrics.bindTo(registry);
+
+            final Gauge gauge = registry.get(X509CertificateExpirationMetrics.Name).tag("subjectDN", GlobalSignRootCA.getSubjectDN().getName()).gauge();
+
+            certificates.remove(GlobalSignRootCA);
+            metrics.refresh();
+
+            assertThat(gauge.value()).isNaN();
+        }
+
+        @Test
+        @DisplayName("should keep previous gauges and propagate exception if certificates source fails")
+        public void shouldKeepPreviousGaugesIfSourceFails() {
+
+            final AtomicBoolean fail = new AtomicBoolean(false);
+            final X509CertificateSource source = () -> {
+                if (fail.get()) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return singletonList(AmazonRootCA);
+            };
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, source);
+
+            metrics.bindTo(registry);
+
+            fail.set(true);
+            assertThrows(IllegalStateException.class, metrics::refresh);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should release bound registries on close")
+        public void shouldReleaseBoundRegistriesOnClose() {
+
+            final List<X509Certificate> certificates = new ArrayList<>(asList(AmazonRootCA, GlobalSignRootCA));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> new ArrayList<>(certificates));
+            metrics.bindTo(registry);
+
+            final AtomicInteger changes = new AtomicInteger();
+            registry.config().onMeterAdded(meter -> changes.incrementAndGet());
+            registry.config().onMeterRemoved(meter -> changes.incrementAndGet());
+
+            metrics.close();
+            certificates.set(1, SecureGlobalCA);
+            metrics.refresh();
+
+            assertThat(changes).hasValue(0);
+        }
+
+        @Test
+        @DisplayName("should rescan certificates source periodically if refresh interval is set")
+        public void shouldRefreshPeriodically() throws InterruptedException {
+
+            final CountDownLatch scans = new CountDownLatch(3);
+            final X509CertificateSource source = () -> {
+                scans.countDown();
+                return singletonList(AmazonRootCA);
+            };
+
+            try (X509CertificateExpirationMetrics ignored = X509CertificateExpirationMetrics.builder(metricTagFactory, source)
+                    .refreshInterval(Duration.ofMillis(10))
+                    .build()) {
+
+                assertThat(scans.await(5, SECONDS)).isTrue();
+            }
+        }
+
+    }
+
+    @Nested
+    @DisplayName("limit")
+    class Limit {
+
+        private final List<X509Certificate> certificates = X509CertificateGenerator.generate(5);
+        private final X509CertificateMetricTagFactory metricTagFactory = new DefaultX509CertificateMetricTagFactory();
+
+        @Test
+        @DisplayName("should register gauges only for the soonest expiring certificates and aggregate the others")
+        public void shouldRegisterGaugesForSoonestExpiringCertificates() {
+
+            final List<X509Certificate> shuffled = asList(certificates.get(3), certificates.get(0), certificates.get(4), certificates.get(2), certificates.get(1));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> shuffled)
+                    .limit(2)
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .extracting(gauge -> gauge.getId().getTag("subjectDN"))
+                    .containsExactlyInAnyOrder(
+                            certificates.get(0).getSubjectDN().getName(),
+                            certificates.get(1).getSubjectDN().getName());
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value())
+                    .isEqualTo(3);
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedMinName).gauge().value())
+                    .isEqualTo((double) certificates.get(2).getNotAfter().toInstant().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should report no earliest expiration of omitted certificates if none is omitted")
+        public void shouldReportNaNIfNoneIsOmitted() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .limit(5)
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(5);
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value()).isZero();
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedMinName).gauge().value()).isNaN();
+        }
+
+        @Test
+        @DisplayName("should build tags only for certificates expiring sooner than the retained ones")
+        public void shouldBuildTagsOnlyForCandidates() {
+
+            final AtomicInteger built = new AtomicInteger();
+            final X509CertificateMetricTagFactory metricTagFactory = certificate -> {
+                built.incrementAndGet();
+                return this.metricTagFactory.buildTagsFrom(certificate);
+            };
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .limit(2)
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(built).hasValue(2);
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should merge retained certificates with the same tags and count all certificates")
+        public void shouldMergeSameTagsAtLimit() {
+
+            final List<X509Certificate> duplicates = asList(certificates.get(0), certificates.get(1), certificates.get(1), certificates.get(2), certificates.get(2));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> duplicates)
+                    .limit(2)
+                    .expiryWindows(Duration.ofDays(365 * 100))
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .extracting(gauge -> gauge.getId().getTag("subjectDN"))
+                    .containsExactlyInAnyOrder(
+                            certificates.get(0).getSubjectDN().getName(),
+                            certificates.get(1).getSubjectDN().getName());
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value()).isEqualTo(2);
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedMinName).gauge().value())
+                    .isEqualTo((double) certificates.get(2).getNotAfter().toInstant().getEpochSecond());
+            assertThat(registry.get(X509CertificateExpirationMetrics.WindowName).tag("window", "36500d").gauge().value()).isEqualTo(5);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 2})
+        @DisplayName("should report the soonest expiration of certificates with the same tags with and without limit")
+        public void shouldReportSoonestExpirationOfSameTags(final int limit) {
+
+            final X509CertificateMetricTagFactory metricTagFactory = __ -> singletonList(Tag.of("key", "value"));
+            final List<X509Certificate> sameTags = asList(certificates.get(2), certificates.get(0), certificates.get(1));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics.Builder builder = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> sameTags);
+            if (limit > 0) {
+                builder.limit(limit);
+            }
+            builder.build().bindTo(registry);
+
+            assertThat(registry.get(X509CertificateExpirationMetrics.Name).gauge().value())
+                    .isEqualTo((double) certificates.get(0).getNotAfter().toInstant().getEpochSecond());
+            if (limit > 0) {
+                assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value()).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("should omit a certificate expiring later than the retained ones without building its tags")
+        public void shouldOmitLaterCertificateWithSameTags() {
+
+            final X509CertificateMetricTagFactory metricTagFactory = __ -> singletonList(Tag.of("key", "value"));
+            final List<X509Certificate> sameTags = asList(certificates.get(2), certificates.get(0), certificates.get(1));
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> sameTags)
+                    .limit(1)
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(registry.get(X509CertificateExpirationMetrics.Name).gauge().value())
+                    .isEqualTo((double) certificates.get(0).getNotAfter().toInstant().getEpochSecond());
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value()).isEqualTo(1);
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedMinName).gauge().value())
+                    .isEqualTo((double) certificates.get(1).getNotAfter().toInstant().getEpochSecond());
+        }
+
+        @Test
+        @DisplayName("should not register aggregates without limit")
+        public void shouldNotRegisterAggregatesWithoutLimit() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new X509CertificateExpirationMetrics(metricTagFactory, () -> certificates).bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.OmittedName).gauges()).isEmpty();
+            assertThat(registry.find(X509CertificateExpirationMetrics.OmittedMinName).gauges()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should update gauges and aggregates on refresh")
+        public void shouldUpdateOnRefresh() {
+
+            final List<X509Certificate> current = new ArrayList<>(certificates);
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            final X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> new ArrayList<>(current))
+                    .limit(2)
+                    .build();
+            metrics.bindTo(registry);
+
+            current.remove(0);
+            current.remove(0);
+            current.remove(0);
+            metrics.refresh();
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                    .extracting(gauge -> gauge.getId().getTag("subjectDN"))
+                    .containsExactlyInAnyOrder(
+                            certificates.get(3).getSubjectDN().getName(),
+                            certificates.get(4).getSubjectDN().getName());
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedName).gauge().value()).isZero();
+            assertThat(registry.get(X509CertificateExpirationMetrics.OmittedMinName).gauge().value()).isNaN();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("expiry windows")
+    class ExpiryWindows {
+
+        private final List<X509Certificate> certificates = X509CertificateGenerator.generate(5);
+        private final X509CertificateMetricTagFactory metricTagFactory = new DefaultX509CertificateMetricTagFactory();
+
+        private final AtomicLong wallTime = new AtomicLong(SECONDS.toMillis(epochOf(certificates.get(0)) + 1));
+        private final Clock clock = new Clock() {
+
+            @Override
+            public long wallTime() {
+                return wallTime.get();
+            }
+
+            @Override
+            public long monotonicTime() {
+                return MILLISECONDS.toNanos(wallTime.get());
+            }
+
+        };
+
+        @Test
+        @DisplayName("should count certificates per expiry window")
+        public void shouldCountCertificatesPerWindow() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .expiryWindows(Duration.ofDays(4), Duration.ofDays(2))
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(window(registry, "expired")).isEqualTo(1);
+            assertThat(window(registry, "2d")).isEqualTo(2);
+            assertThat(window(registry, "4d")).isEqualTo(2);
+            assertThat(window(registry, "later")).isZero();
+        }
+
+        @Test
+        @DisplayName("should re-evaluate expiry windows with the current time of the registry without refresh")
+        public void shouldReEvaluateWithCurrentTime() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .expiryWindows(Duration.ofDays(2))
+                    .build()
+                    .bindTo(registry);
+
+            wallTime.set(SECONDS.toMillis(epochOf(certificates.get(0)) - Duration.ofDays(3).getSeconds()));
+
+            assertThat(window(registry, "expired")).isZero();
+            assertThat(window(registry, "2d")).isZero();
+            assertThat(window(registry, "later")).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should count omitted certificates if limited")
+        public void shouldCountOmittedCertificates() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .limit(1)
+                    .expiryWindows(Duration.ofHours(36))
+                    .build()
+                    .bindTo(registry);
+
+            assertThat(window(registry, "expired")).isEqualTo(1);
+            assertThat(window(registry, "36h")).isEqualTo(1);
+            assertThat(window(registry, "later")).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should update expiry windows on refresh")
+        public void shouldUpdateOnRefresh() {
+
+            final List<X509Certificate> current = new ArrayList<>(certificates);
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            final X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> new ArrayList<>(current))
+                    .expiryWindows(Duration.ofDays(2))
+                    .build();
+            metrics.bindTo(registry);
+
+            current.remove(0);
+            metrics.refresh();
+
+            assertThat(window(registry, "expired")).isZero();
+            assertThat(window(registry, "2d")).isEqualTo(2);
+            assertThat(window(registry, "later")).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should not register expiry windows if not configured")
+        public void shouldNotRegisterWithoutWindows() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new X509CertificateExpirationMetrics(metricTagFactory, () -> certificates).bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.WindowName).gauges()).isEmpty();
+        }
+
+        private double window(final SimpleMeterRegistry registry, final String window) {
+            return registry.get(X509CertificateExpirationMetrics.WindowName).tag("window", window).gauge().value();
+        }
+
+        private long epochOf(final X509Certificate certificate) {
+            return certificate.getNotAfter().toInstant().getEpochSecond();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("remaining seconds")
+    class RemainingSeconds {
+
+        private final List<X509Certificate> certificates = X509CertificateGenerator.generate(3);
+        private final X509CertificateMetricTagFactory metricTagFactory = new DefaultX509CertificateMetricTagFactory();
+
+        private final AtomicLong wallTime = new AtomicLong(SECONDS.toMillis(epochOf(certificates.get(0)) - 60));
+        private final AtomicInteger wallTimeReads = new AtomicInteger();
+        private final Clock clock = new Clock() {
+
+            @Override
+            public long wallTime() {
+                wallTimeReads.incrementAndGet();
+                return wallTime.get();
+            }
+
+            @Override
+            public long monotonicTime() {
+                return MILLISECONDS.toNanos(wallTime.get());
+            }
+
+        };
+
+        @Test
+        @DisplayName("should register gauges of the remaining seconds until expiration")
+        public void shouldRegisterRemainingSeconds() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .remainingSeconds(true)
+                    .build()) {
+                metrics.bindTo(registry);
+
+                for (final X509Certificate certificate : certificates) {
+                    assertThat(remaining(registry, certificate))
+                            .isEqualTo((double) epochOf(certificate) - SECONDS.convert(wallTime.get(), MILLISECONDS));
+                }
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @Test
+        @DisplayName("should read the clock once per collection and not per gauge")
+        public void shouldReadClockOncePerCollection() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .remainingSeconds(true)
+                    .build()) {
+                metrics.bindTo(registry);
+
+                wallTime.addAndGet(SECONDS.toMillis(30) - 1);
+                final int reads = wallTimeReads.get();
+                assertThat(remaining(registry, certificates.get(0))).isEqualTo(31);
+                wallTime.addAndGet(50);
+                assertThat(remaining(registry, certificates.get(1))).isEqualTo(31 + Duration.ofDays(1).getSeconds());
+                assertThat(remaining(registry, certificates.get(2))).isEqualTo(31 + Duration.ofDays(2).getSeconds());
+                assertThat(wallTimeReads).hasValue(reads + 1);
+
+                assertThat(remaining(registry, certificates.get(0))).isEqualTo(30);
+                assertThat(wallTimeReads).hasValue(reads + 2);
+            }
+        }
+
+        @Test
+        @DisplayName("should update gauges of the remaining seconds on refresh")
+        public void shouldUpdateOnRefresh() {
+
+            final List<X509Certificate> current = new ArrayList<>(certificates);
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> new ArrayList<>(current))
+                    .remainingSeconds(true)
+                    .build()) {
+                metrics.bindTo(registry);
+
+                current.remove(0);
+                metrics.refresh();
+
+                assertThat(registry.find(X509CertificateExpirationMetrics.RemainingName).gauges())
+                        .extracting(gauge -> gauge.getId().getTag("subjectDN"))
+                        .containsExactlyInAnyOrder(
+                                certificates.get(1).getSubjectDN().getName(),
+                                certificates.get(2).getSubjectDN().getName());
+            }
+        }
+
+        @Test
+        @DisplayName("should not register gauges of the remaining seconds if not enabled")
+        public void shouldNotRegisterIfNotEnabled() {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new X509CertificateExpirationMetrics(metricTagFactory, () -> certificates).bindTo(registry);
+
+            assertThat(registry.find(X509CertificateExpirationMetrics.RemainingName).gauges()).isEmpty();
+        }
+
+        private double remaining(final SimpleMeterRegistry registry, final X509Certificate certificate) {
+            return registry.get(X509CertificateExpirationMetrics.RemainingName)
+                    .tag("subjectDN", certificate.getSubjectDN().getName())
+                    .gauge()
+                    .value();
+        }
+
+        private long epochOf(final X509Certificate certificate) {
+            return certificate.getNotAfter().toInstant().getEpochSecond();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("loading")
+    class Loading {
+
+        private final List<X509Certificate> certificates = X509CertificateGenerator.generate(3);
+        private final X509CertificateMetricTagFactory metricTagFactory = new DefaultX509CertificateMetricTagFactory();
+
+        @Test
+        @DisplayName("should return from construction before certificates are loaded and register gauges once loaded if asynchronous")
+        public void shouldLoadAsynchronously() throws Exception {
+
+            final CountDownLatch release = new CountDownLatch(1);
+            final X509CertificateSource source = () -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return certificates;
+            };
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, source)
+                    .loading(X509CertificateExpirationMetrics.Loading.Asynchronous)
+                    .build()) {
+
+                metrics.bindTo(registry);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).isEmpty();
+
+                release.countDown();
+                metrics.loaded().get(5, SECONDS);
+
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @Test
+        @DisplayName("should register gauges on binding after certificates are loaded asynchronously")
+        public void shouldRegisterGaugesOnBindingAfterAsynchronousLoad() throws Exception {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .loading(X509CertificateExpirationMetrics.Loading.Asynchronous)
+                    .build()) {
+
+                metrics.loaded().get(5, SECONDS);
+                metrics.bindTo(registry);
+
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @Test
+        @DisplayName("should not fail construction and retry with backoff if asynchronous loading fails")
+        public void shouldRetryIfAsynchronousLoadingFails() throws Exception {
+
+            final AtomicInteger scans = new AtomicInteger();
+            final X509CertificateSource source = () -> {
+                if (scans.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Expected.");
+                }
+                return certificates;
+            };
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, source)
+                    .loading(X509CertificateExpirationMetrics.Loading.Asynchronous)
+                    .build()) {
+
+                metrics.bindTo(registry);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).isEmpty();
+
+                final long start = System.nanoTime();
+                metrics.loaded().get(5, SECONDS);
+
+                assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(500));
+                assertThat(scans).hasValue(2);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @Test
+        @DisplayName("should defer loading of certificates until first collection and load them in background if lazy")
+        public void shouldLoadLazily() throws Exception {
+
+            final AtomicInteger scans = new AtomicInteger();
+            final AtomicReference<Thread> scannedBy = new AtomicReference<>();
+            final X509CertificateSource source = () -> {
+                scans.incrementAndGet();
+                scannedBy.set(Thread.currentThread());
+                return certificates;
+            };
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, source)
+                    .loading(X509CertificateExpirationMetrics.Loading.Lazy)
+                    .build()) {
+                metrics.bindTo(registry);
+
+                assertThat(scans).hasValue(0);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).isEmpty();
+
+                assertThat(registry.get(X509CertificateExpirationMetrics.CertificatesName).gauge().value()).isNaN();
+                metrics.loaded().get(5, SECONDS);
+
+                assertThat(registry.get(X509CertificateExpirationMetrics.CertificatesName).gauge().value()).isEqualTo(3);
+
+                assertThat(scans).hasValue(1);
+                assertThat(scannedBy.get()).isNotSameAs(Thread.currentThread());
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @Test
+        @DisplayName("should retry lazy loading on collection with backoff if loading fails")
+        public void shouldRetryLazyLoadingWithBackoff() throws Exception {
+
+            final AtomicInteger scans = new AtomicInteger();
+            final AtomicBoolean fail = new AtomicBoolean(true);
+            final X509CertificateSource source = () -> {
+                scans.incrementAndGet();
+                if (fail.get()) {
+                    throw new IllegalStateException("Expected.");
+                }
+                return certificates;
+            };
+
+            final MockClock clock = new MockClock();
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, source)
+                    .loading(X509CertificateExpirationMetrics.Loading.Lazy)
+                    .build()) {
+                metrics.bindTo(registry);
+                final Gauge gauge = registry.get(X509CertificateExpirationMetrics.CertificatesName).gauge();
+
+                assertThat(gauge.value()).isNaN();
+                metrics.attempt().get(5, SECONDS);
+                assertThat(scans).hasValue(1);
+                fail.set(false);
+
+                clock.add(Duration.ofMillis(500));
+                assertThat(gauge.value()).isNaN();
+                metrics.attempt().get(5, SECONDS);
+                assertThat(scans).hasValue(1);
+                assertThat(metrics.loaded()).isNotDone();
+
+                clock.add(Duration.ofMillis(500));
+                assertThat(gauge.value()).isNaN();
+                metrics.loaded().get(5, SECONDS);
+                assertThat(scans).hasValue(2);
+
+                assertThat(gauge.value()).isEqualTo(3);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @ParameterizedTest
+        @EnumSource(X509CertificateExpirationMetrics.Loading.class)
+        @DisplayName("should register the certificates gauge only if loading lazily")
+        public void shouldRegisterCertificatesGaugeOnlyIfLazy(final X509CertificateExpirationMetrics.Loading loading) throws Exception {
+
+            final SimpleMeterRegistry eager = new SimpleMeterRegistry();
+            new X509CertificateExpirationMetrics(metricTagFactory, () -> certificates).bindTo(eager);
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .loading(loading)
+                    .build()) {
+                metrics.bindTo(registry);
+                registry.getMeters().forEach(meter -> meter.measure().forEach(Measurement::getValue));
+                metrics.loaded().get(5, SECONDS);
+
+                assertThat(registry.find(X509CertificateExpirationMetrics.CertificatesName).gauges())
+                        .hasSize(loading == X509CertificateExpirationMetrics.Loading.Lazy ? 1 : 0);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges())
+                        .extracting(Meter::getId)
+                        .containsExactlyInAnyOrderElementsOf(eager.getMeters().stream().map(Meter::getId).collect(toList()));
+            }
+        }
+
+        @Test
+        @DisplayName("should start lazy loading on first collection of any gauge")
+        public void shouldLoadLazilyOnCollectionOfAnyGauge() throws Exception {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .loading(X509CertificateExpirationMetrics.Loading.Lazy)
+                    .expiryWindows(Duration.ofDays(1))
+                    .build()) {
+                metrics.bindTo(registry);
+
+                assertThat(metrics.loaded()).isNotDone();
+                registry.get(X509CertificateExpirationMetrics.WindowName).tag("window", "later").gauge().value();
+                metrics.loaded().get(5, SECONDS);
+            }
+        }
+
+        @Test
+        @DisplayName("should start lazy loading on binding if none of the gauges is collected")
+        public void shouldLoadLazilyOnBindingIfDenied() throws Exception {
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            registry.config().meterFilter(MeterFilter.denyNameStartsWith(X509CertificateExpirationMetrics.CertificatesName));
+            try (X509CertificateExpirationMetrics metrics = X509CertificateExpirationMetrics.builder(metricTagFactory, () -> certificates)
+                    .loading(X509CertificateExpirationMetrics.Loading.Lazy)
+                    .build()) {
+                metrics.bindTo(registry);
+
+                metrics.loaded().get(5, SECONDS);
+                assertThat(registry.find(X509CertificateExpirationMetrics.Name).gauges()).hasSize(3);
+            }
+        }
+
+        @Test
+        @DisplayName("should not refresh periodically before first collection if lazy")
+        public void shouldNotRefreshBeforeFirstCollection() throws InterruptedException {
+
+            final AtomicInteger scans = new AtomicInteger();
+            final X509CertificateSource source = () -> {
+                scans.incrementAndGet();
+                return certificates;
+            };
+
+            try (X509CertificateExpirationMetrics ignored = X509CertificateExpirationMetrics.builder(metricTagFactory, source)
+                    .loading(X509CertificateExpirationMetrics.Loading.Lazy)
+                    .refreshInterval(Duration.ofMillis(10))
+                    .build()) {
+
+                MILLISECONDS.sleep(200);
+                assertThat(scans).hasValue(0);
+            }
+        }
+
+        @Test
+        @DisplayName("should load certificates on construction by default")
+        public void shouldLoadEagerlyByDefault() {
+
+            final AtomicInteger scans = new AtomicInteger();
+            final X509CertificateExpirationMetrics metrics = new X509CertificateExpirationMetrics(metricTagFactory, () -> {
+                scans.incrementAndGet();
+                return certificates;
+            });
+
+            assertThat(scans).hasValue(1);
+            assertThat(metrics.loaded()).isCompleted();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("builder")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class Builder {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if loading is null")
+        public void contractNotNullLoading() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateExpirationMetrics.builder(anyMetricTagFactory, Collections::emptyList).loading(null));
+            assertThat(exception).hasMessage("Loading must not be null.");
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, -1})
+        @DisplayName("should throw 'IllegalArgumentException' if limit is not positive")
+        public void contractPositiveLimit(final int limit) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateExpirationMetrics.builder(anyMetricTagFactory, Collections::emptyList).limit(limit));
+            assertThat(exception).hasMessage("Limit must be positive.");
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if expiry windows are empty")
+        public void contractNotEmptyExpiryWindows() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateExpirationMetrics.builder(anyMetricTagFactory, Collections::emptyList).expiryWindows());
+            assertThat(exception).hasMessage("Expiry windows must not be empty.");
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = {0, -1})
+        @DisplayName("should throw 'IllegalArgumentException' if an expiry window is less than one second")
+        public void contractPositiveExpiryWindow(final long seconds) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateExpirationMetrics.builder(anyMetricTagFactory, Collections::emptyList)
+                            .expiryWindows(Duration.ofDays(7), Duration.ofSeconds(seconds)));
+            assertThat(exception).hasMessage("Expiry window must be at least one second.");
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        @DisplayName("should throw 'IllegalArgumentException' if refresh interval is not positive")
+        public void contractPositiveRefreshInterval(final Duration refreshInterval) {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateExpirationMetrics.builder(anyMetricTagFactory, Collections::emptyList).refreshInterval(refreshInterval));
+            assertThat(exception).hasMessage("Refresh interval must be positive.");
+
+        }
+
+        public Stream<Arguments> contractPositiveRefreshInterval() {
+            return Stream.of(
+                    Arguments.of((Object) null),
+                    Arguments.of(Duration.ZERO),
+                    Arguments.of(Duration.ofSeconds(-1))
+            );
+        }
+
+    }
+
 }
\ No newline at end of file
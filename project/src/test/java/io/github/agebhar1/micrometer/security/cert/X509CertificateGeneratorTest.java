@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junitpioneer.jupiter.ClearSystemProperty;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static io.github.agebhar1.micrometer.security.cert.X509CertificateGenerator.Format.PEM;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("X509CertificateGenerator")
+class X509CertificateGeneratorTest {
+
+    @Test
+    @DisplayName("should generate certificates with distinct subjects and valid self-signature")
+    public void shouldGenerateCertificates() throws Exception {
+
+        final List<X509Certificate> certificates = X509CertificateGenerator.generate(3);
+
+        assertThat(certificates)
+                .extracting(it -> it.getSubjectDN().getName())
+                .containsExactly(
+                        "CN=Certificate 0, O=micrometer-certs-expiration",
+                        "CN=Certificate 1, O=micrometer-certs-expiration",
+                        "CN=Certificate 2, O=micrometer-certs-expiration");
+        for (final X509Certificate certificate : certificates) {
+            certificate.checkValidity();
+            certificate.verify(certificate.getPublicKey());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"JKS", "PKCS12"})
+    @ClearSystemProperty(key = "javax.net.ssl.trustStore")
+    @ClearSystemProperty(key = "javax.net.ssl.trustStorePassword")
+    @ClearSystemProperty(key = "javax.net.ssl.trustStoreType")
+    @DisplayName("should write key store readable by 'CustomGlobalTrustStoreX509Certificates'")
+    public void shouldWriteKeyStore(final String type, @TempDir final Path directory) {
+
+        final List<X509Certificate> certificates = X509CertificateGenerator.generate(10);
+        final Path trustStore = X509CertificateGenerator.writeKeyStore(directory.resolve("trustStore"), type, "changeit", certificates);
+
+        System.setProperty("javax.net.ssl.trustStore", trustStore.toString());
+        System.setProperty("javax.net.ssl.trustStorePassword", "changeit");
+        System.setProperty("javax.net.ssl.trustStoreType", type);
+
+        assertThat(new CustomGlobalTrustStoreX509Certificates().readAllCertificates())
+                .containsExactlyInAnyOrderElementsOf(certificates);
+    }
+
+    @Test
+    @DisplayName("should generate certificate chains of the given depth signed by the issuer")
+    public void shouldGenerateChains() throws Exception {
+
+        final List<X509Certificate> certificates = X509CertificateGenerator.builder().count(6).chainDepth(3).generate();
+
+        for (int i = 0; i < certificates.size(); i++) {
+            final X509Certificate certificate = certificates.get(i);
+            final X509Certificate issuer = i % 3 == 0 ? certificate : certificates.get(i - 1);
+
+            assertThat(certificate.getIssuerX500Principal()).isEqualTo(issuer.getSubjectX500Principal());
+            certificate.verify(issuer.getPublicKey());
+        }
+    }
+
+    @Test
+    @DisplayName("should generate certificates of the given validity")
+    public void shouldGenerateValidity() {
+
+        final Instant now = Instant.now();
+        final List<X509Certificate> certificates = X509CertificateGenerator.builder()
+                .count(100)
+                .validity(X509CertificateGenerator.Validity.uniform(Duration.ofDays(-10), Duration.ofDays(10)))
+                .generate();
+
+        assertThat(certificates)
+                .extracting(it -> it.getNotAfter().toInstant())
+                .allSatisfy(notAfter -> assertThat(notAfter).isBetween(now.minus(Duration.ofDays(11)), now.plus(Duration.ofDays(11))))
+                .anySatisfy(notAfter -> assertThat(notAfter).isBefore(now))
+                .anySatisfy(notAfter -> assertThat(notAfter).isAfter(now));
+    }
+
+    @Test
+    @DisplayName("should generate the given ratio of duplicates")
+    public void shouldGenerateDuplicates() {
+
+        final List<X509Certificate> certificates = X509CertificateGenerator.builder().count(100).duplicateRatio(0.25).generate();
+
+        assertThat(certificates).hasSize(100);
+        assertThat(new HashSet<>(certificates)).hasSize(75);
+    }
+
+    @Test
+    @DisplayName("should keep at least one distinct certificate if duplicate ratio rounds to all certificates")
+    public void shouldKeepOneDistinctCertificate() {
+
+        final List<X509Certificate> certificates = X509CertificateGenerator.builder().count(1).duplicateRatio(0.5).generate();
+
+        assertThat(certificates).hasSize(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.1, 1, Double.NaN})
+    @DisplayName("should throw 'IllegalArgumentException' if duplicate ratio is out of range")
+    public void contractDuplicateRatio(final double duplicateRatio) {
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> X509CertificateGenerator.builder().duplicateRatio(duplicateRatio));
+        assertThat(exception).hasMessage("Duplicate ratio must be in range [0, 1).");
+    }
+
+    @Test
+    @DisplayName("should throw 'IllegalArgumentException' if DNS names are null")
+    public void contractNotNullDnsNames() {
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> X509CertificateGenerator.builder().dnsNames((String[]) null));
+        assertThat(exception).hasMessage("DNS names must not be null.");
+    }
+
+    @Test
+    @DisplayName("should write PEM bundle")
+    public void shouldWritePemBundle(@TempDir final Path directory) throws Exception {
+
+        final List<X509Certificate> certificates = X509CertificateGenerator.generate(10);
+        final Path bundle = X509CertificateGenerator.writePemBundle(directory.resolve("bundle.pem"), certificates);
+
+        try (InputStream stream = Files.newInputStream(bundle)) {
+            final List<Certificate> actual = new ArrayList<>(CertificateFactory.getInstance("X.509").generateCertificates(stream));
+            assertThat(actual).containsExactlyElementsOf(certificates);
+        }
+    }
+
+    @Test
+    @DisplayName("should write store once and reuse it from the cache directory")
+    public void shouldCacheStore(@TempDir final Path directory) throws Exception {
+
+        final X509CertificateGenerator.Builder builder = X509CertificateGenerator.builder().count(5).chainDepth(2);
+
+        final Path store = builder.write(directory, PEM);
+        final byte[] content = Files.readAllBytes(store);
+
+        assertThat(builder.write(directory, PEM)).isEqualTo(store);
+        assertThat(Files.readAllBytes(store)).isEqualTo(content);
+        assertThat(builder.count(6).write(directory, PEM)).isNotEqualTo(store);
+        try (InputStream stream = Files.newInputStream(store)) {
+            assertThat(CertificateFactory.getInstance("X.509").generateCertificates(stream)).hasSize(5);
+        }
+    }
+
+}
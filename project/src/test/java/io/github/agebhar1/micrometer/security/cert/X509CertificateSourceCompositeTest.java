@@ -24,10 +24,14 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -179,4 +183,133 @@ class X509CertificateSourceCompositeTest {
 
     }
 
+    @Nested
+    @DisplayName("forEachCertificate")
+    public class ForEachCertificate {
+
+        private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+        private final X509Certificate SecureGlobalCA = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+
+        @Test
+        @DisplayName("should pass certificates of all provided sources to action without materializing them")
+        public void shouldStreamCertificatesOfAllProvidedSources() {
+
+            final Function<X509Certificate, X509CertificateSource> sourceFactory = certificate -> new X509CertificateSource() {
+
+                @Override
+                public Collection<X509Certificate> readAllCertificates() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void forEachCertificate(final Consumer<? super X509Certificate> action) {
+                    action.accept(certificate);
+                }
+
+            };
+
+            final X509CertificateSource composite = X509CertificateSourceComposite.of(
+                    sourceFactory.apply(AmazonRootCA),
+                    Collections::emptyList,
+                    sourceFactory.apply(SecureGlobalCA));
+
+            final List<X509Certificate> certificates = new ArrayList<>();
+            composite.forEachCertificate(certificates::add);
+
+            assertThat(certificates).containsExactly(AmazonRootCA, SecureGlobalCA);
+        }
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if any source provides null collection")
+        public void contractNotNullCollection() {
+
+            final X509CertificateSource composite = X509CertificateSourceComposite.of(Collections::emptyList, () -> null);
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> composite.forEachCertificate(certificate -> { }));
+            assertThat(exception).hasMessage("Collection of certificates must not be null.");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("forEachCertificateSummary")
+    public class ForEachCertificateSummary {
+
+        private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+        private final X509Certificate SecureGlobalCA = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+
+        @Test
+        @DisplayName("should pass summaries of certificates of all provided sources to action")
+        public void shouldStreamSummariesOfAllProvidedSources() {
+
+            final X509CertificateSummary summary = X509CertificateSummary.of(SecureGlobalCA);
+            final X509CertificateSource summarizingSource = new X509CertificateSource() {
+
+                @Override
+                public Collection<X509Certificate> readAllCertificates() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+                    action.accept(summary);
+                }
+
+            };
+
+            final X509CertificateSource composite = X509CertificateSourceComposite.of(
+                    () -> asList(AmazonRootCA, null),
+                    summarizingSource);
+
+            final List<X509CertificateSummary> summaries = new ArrayList<>();
+            composite.forEachCertificateSummary(summaries::add);
+
+            assertThat(summaries)
+                    .extracting(X509CertificateSummary::toX509Certificate)
+                    .containsExactly(AmazonRootCA, SecureGlobalCA);
+            assertThat(summaries.get(1)).isSameAs(summary);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("isolated(X509CertificateSource... sources)")
+    public class IsolatedVarargs {
+
+        private final X509Certificate AmazonRootCA = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+        private final X509Certificate SecureGlobalCA = X509CertificateUtils.loadFromResource("ssl/certs/Secure_Global_CA.crt");
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if any of the provides sources is null")
+        public void contractNoneNull() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                    X509CertificateSourceComposite.isolated(new AnyX509CertificateSource(), null));
+            assertThat(exception).hasMessage("Any provided X509Certificate source must be not null");
+        }
+
+        @Test
+        @DisplayName("should serve last good result of a failing source and certificates of all other sources")
+        public void shouldIsolateFailingSource() {
+
+            final AtomicBoolean fail = new AtomicBoolean(false);
+            final X509CertificateSource composite = X509CertificateSourceComposite.isolated(
+                    () -> singletonList(AmazonRootCA),
+                    () -> {
+                        if (fail.get()) {
+                            throw new IllegalStateException("unavailable");
+                        }
+                        return singletonList(SecureGlobalCA);
+                    });
+
+            assertThat(composite.readAllCertificates()).containsExactly(AmazonRootCA, SecureGlobalCA);
+
+            fail.set(true);
+
+            assertThat(composite.readAllCertificates()).containsExactly(AmazonRootCA, SecureGlobalCA);
+        }
+
+    }
+
 }
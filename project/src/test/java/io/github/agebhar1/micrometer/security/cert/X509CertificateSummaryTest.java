@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("X509CertificateSummary")
+class X509CertificateSummaryTest {
+
+    @Nested
+    @DisplayName("of")
+    class Of {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if certificate is null")
+        public void contractNotNull() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateSummary.of(null));
+            assertThat(exception).hasMessage("Certificate must not be null.");
+        }
+
+        @Test
+        @DisplayName("should take fields from certificate")
+        public void shouldTakeFieldsFromCertificate() {
+
+            final X509Certificate certificate = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt");
+            final X509CertificateSummary summary = X509CertificateSummary.of(certificate);
+
+            assertThat(summary.getSerialNumber()).isEqualTo(certificate.getSerialNumber());
+            assertThat(summary.getIssuerX500Principal()).isEqualTo(certificate.getIssuerX500Principal());
+            assertThat(summary.getSubjectX500Principal()).isEqualTo(certificate.getSubjectX500Principal());
+            assertThat(summary.getNotBefore()).isEqualTo(certificate.getNotBefore().toInstant());
+            assertThat(summary.getNotAfter()).isEqualTo(certificate.getNotAfter().toInstant());
+            assertThat(summary.toX509Certificate()).isSameAs(certificate);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("parse")
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class Parse {
+
+        @Test
+        @DisplayName("should throw 'IllegalArgumentException' if encoded certificate is null")
+        public void contractNotNull() {
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> X509CertificateSummary.parse(null));
+            assertThat(exception).hasMessage("Encoded certificate must not be null.");
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        @DisplayName("should extract fields from DER encoded certificate")
+        public void shouldExtractFields(final X509Certificate certificate) throws Exception {
+
+            final X509CertificateSummary summary = X509CertificateSummary.parse(certificate.getEncoded());
+
+            assertThat(summary.getSerialNumber()).isEqualTo(certificate.getSerialNumber());
+            assertThat(summary.getIssuerX500Principal()).isEqualTo(certificate.getIssuerX500Principal());
+            assertThat(summary.getSubjectX500Principal()).isEqualTo(certificate.getSubjectX500Principal());
+            assertThat(summary.getSubjectX500Principal().toString()).isEqualTo(certificate.getSubjectDN().getName());
+            assertThat(summary.getNotBefore()).isEqualTo(certificate.getNotBefore().toInstant());
+            assertThat(summary.getNotAfter()).isEqualTo(certificate.getNotAfter().toInstant());
+            assertThat(summary.toX509Certificate()).isEqualTo(certificate);
+        }
+
+        public Stream<Arguments> shouldExtractFields() {
+            return Stream.of(
+                    Stream.of("ssl/certs/Amazon_Root_CA_4.crt", "ssl/certs/GlobalSign_Root_CA_-_R6.crt", "ssl/certs/Secure_Global_CA.crt")
+                            .map(X509CertificateUtils::loadFromResource),
+                    X509CertificateGenerator.builder().count(2).chainDepth(2).generate().stream(),
+                    X509CertificateGenerator.builder().validity(X509CertificateGenerator.Validity.fixed(Duration.ofDays(365 * 40))).generate().stream())
+                    .flatMap(it -> it)
+                    .map(Arguments::of);
+        }
+
+        @Test
+        @DisplayName("should throw 'CertificateParsingException' if certificate is truncated")
+        public void shouldThrowIfTruncated() throws Exception {
+
+            final byte[] encoded = X509CertificateUtils.loadFromResource("ssl/certs/Amazon_Root_CA_4.crt").getEncoded();
+
+            final CertificateParsingException exception = assertThrows(CertificateParsingException.class,
+                    () -> X509CertificateSummary.parse(Arrays.copyOf(encoded, 100)));
+            assertThat(exception).hasMessage("Invalid DER encoded X509 certificate.");
+        }
+
+        @Test
+        @DisplayName("should throw 'CertificateParsingException' if content is not a certificate")
+        public void shouldThrowIfNotCertificate() {
+
+            final CertificateParsingException exception = assertThrows(CertificateParsingException.class,
+                    () -> X509CertificateSummary.parse(new byte[]{0x02, 0x01, 0x00}));
+            assertThat(exception).hasMessage("Invalid DER encoded X509 certificate.");
+        }
+
+    }
+
+}
@@ -23,6 +23,8 @@ import java.io.InputStream;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
@@ -49,6 +51,28 @@ public final class X509CertificateUtils {
         }
     }
 
+    public static X509CertificateSource derSummarySource(final X509Certificate... certificates) {
+        return new X509CertificateSource() {
+
+            @Override
+            public Collection<X509Certificate> readAllCertificates() {
+                throw new AssertionError("Certificates must be read as DER parsed summaries.");
+            }
+
+            @Override
+            public void forEachCertificateSummary(final Consumer<? super X509CertificateSummary> action) {
+                for (final X509Certificate certificate : certificates) {
+                    try {
+                        action.accept(X509CertificateSummary.parse(certificate.getEncoded()));
+                    } catch (final CertificateException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+
+        };
+    }
+
     @Test
     @DisplayName("should be able to load all certificates")
     public void resources() {
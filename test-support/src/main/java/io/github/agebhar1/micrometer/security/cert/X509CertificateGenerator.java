@@ -0,0 +1,393 @@
+/*
+ * Copyright © 2021 Andreas Gebhardt (agebhar1@googlemail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.agebhar1.micrometer.security.cert;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.Signature;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+public final class X509CertificateGenerator {
+
+    public static final String Password = "changeit";
+
+    private static final DateTimeFormatter UtcTime = DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter GeneralizedTime = DateTimeFormatter.ofPattern("yyyyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private static final byte[] SHA256withECDSA = sequence(oid("1.2.840.10045.4.3.2"));
+    private static final String OidCommonName = "2.5.4.3";
+    private static final String OidOrganization = "2.5.4.10";
+    private static final String OidSubjectAlternativeName = "2.5.29.17";
+
+    private X509CertificateGenerator() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static List<X509Certificate> generate(final int count) {
+        return builder().count(count).generate();
+    }
+
+    public static Path writeKeyStore(final Path file, final String type, final String password, final Collection<X509Certificate> certificates) {
+        try {
+            final KeyStore keyStore = KeyStore.getInstance(type);
+            keyStore.load(null, null);
+
+            int alias = 0;
+            for (final X509Certificate certificate : certificates) {
+                keyStore.setCertificateEntry("certificate-" + alias++, certificate);
+            }
+
+            try (OutputStream stream = Files.newOutputStream(file)) {
+                keyStore.store(stream, password.toCharArray());
+            }
+            return file;
+        } catch (final IOException | GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Path writePemBundle(final Path file, final Collection<X509Certificate> certificates) {
+        final Base64.Encoder encoder = Base64.getMimeEncoder(64, new byte[]{'\n'});
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            for (final X509Certificate certificate : certificates) {
+                stream.write("-----BEGIN CERTIFICATE-----\n".getBytes(US_ASCII));
+                stream.write(encoder.encode(certificate.getEncoded()));
+                stream.write("\n-----END CERTIFICATE-----\n".getBytes(US_ASCII));
+            }
+            return file;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (final CertificateEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public enum Format {
+
+        JKS("jks"), PKCS12("p12"), PEM("pem");
+
+        private final String extension;
+
+        Format(final String extension) {
+            this.extension = extension;
+        }
+
+        private Path write(final Path file, final Collection<X509Certificate> certificates) {
+            return this == PEM ? writePemBundle(file, certificates) : writeKeyStore(file, name(), Password, certificates);
+        }
+
+    }
+
+    public static final class Validity {
+
+        public static final Validity Spread = new Validity("spread", (index, random) -> Duration.ofDays(1 + index % 3650));
+
+        private final String name;
+        private final BiFunction<Integer, Random, Duration> remaining;
+
+        private Validity(final String name, final BiFunction<Integer, Random, Duration> remaining) {
+            this.name = name;
+            this.remaining = remaining;
+        }
+
+        public static Validity fixed(final Duration remaining) {
+            return new Validity("fixed" + remaining.getSeconds(), (index, random) -> remaining);
+        }
+
+        public static Validity uniform(final Duration min, final Duration max) {
+            final long bound = max.getSeconds() - min.getSeconds() + 1;
+            if (bound <= 0) {
+                throw new IllegalArgumentException("Maximum validity must not be less than minimum validity.");
+            }
+            return new Validity(format("uniform%d_%d", min.getSeconds(), max.getSeconds()),
+                    (index, random) -> min.plusSeconds((long) (random.nextDouble() * bound)));
+        }
+
+        private Duration remaining(final int index, final Random random) {
+            return remaining.apply(index, random);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+    public static final class Builder {
+
+        private int count = 1;
+        private int chainDepth = 1;
+        private Validity validity = Validity.Spread;
+        private double duplicateRatio;
+        private long seed;
+        private String[] dnsNames = new String[0];
+
+        private Builder() {
+        }
+
+        public Builder count(final int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Count must not be negative.");
+            }
+            this.count = count;
+            return this;
+        }
+
+        public Builder chainDepth(final int chainDepth) {
+            if (chainDepth < 1) {
+                throw new IllegalArgumentException("Chain depth must be positive.");
+            }
+            this.chainDepth = chainDepth;
+            return this;
+        }
+
+        public Builder validity(final Validity validity) {
+            if (validity == null) {
+                throw new IllegalArgumentException("Validity must not be null.");
+            }
+            this.validity = validity;
+            return this;
+        }
+
+        public Builder duplicateRatio(final double duplicateRatio) {
+            if (!(duplicateRatio >= 0 && duplicateRatio < 1)) {
+                throw new IllegalArgumentException("Duplicate ratio must be in range [0, 1).");
+            }
+            this.duplicateRatio = duplicateRatio;
+            return this;
+        }
+
+        public Builder dnsNames(final String... dnsNames) {
+            if (dnsNames == null || Arrays.stream(dnsNames).anyMatch(Objects::isNull)) {
+                throw new IllegalArgumentException("DNS names must not be null.");
+            }
+            this.dnsNames = dnsNames.clone();
+            return this;
+        }
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public List<X509Certificate> generate() {
+            try {
+                final Random random = new Random(seed);
+                final KeyPair[] keyPairs = new KeyPair[chainDepth];
+                for (int level = 0; level < chainDepth; level++) {
+                    keyPairs[level] = keyPair();
+                }
+                final CertificateFactory factory = CertificateFactory.getInstance("X.509");
+                final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+                final int distinct = Math.min(count, Math.max(1, count - (int) Math.round(count * duplicateRatio)));
+                final int duplicates = count - distinct;
+
+                final List<X509Certificate> certificates = new ArrayList<>(count);
+                byte[] issuer = null;
+                for (int i = 0; i < distinct; i++) {
+                    final int level = i % chainDepth;
+                    final byte[] subject = name("Certificate " + i, "micrometer-certs-expiration");
+                    final KeyPair issuerKeyPair = keyPairs[Math.max(level - 1, 0)];
+                    final byte[] encoded = certificate(issuerKeyPair, keyPairs[level], BigInteger.valueOf(i + 1L), level == 0 ? subject : issuer, subject,
+                            now.minus(1, ChronoUnit.DAYS), now.plus(validity.remaining(i, random)), dnsNames);
+                    certificates.add((X509Certificate) factory.generateCertificate(new ByteArrayInputStream(encoded)));
+                    issuer = subject;
+                }
+                for (int i = 0; i < duplicates; i++) {
+                    certificates.add(certificates.get(random.nextInt(distinct)));
+                }
+                if (duplicates > 0) {
+                    Collections.shuffle(certificates, random);
+                }
+                return certificates;
+            } catch (final GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public Path write(final Format format) {
+            return write(Paths.get(System.getProperty("x509.certificate.generator.cache",
+                    Paths.get(System.getProperty("java.io.tmpdir"), "micrometer-certs-expiration").toString())), format);
+        }
+
+        public Path write(final Path directory, final Format format) {
+            if (format == null) {
+                throw new IllegalArgumentException("Format must not be null.");
+            }
+            final String name = format("certificates-%s-%d-%d-%s-%s-%d-%08x.%s", LocalDate.now(ZoneOffset.UTC), count, chainDepth, validity,
+                    Double.toString(duplicateRatio), seed, Arrays.hashCode(dnsNames), format.extension).toLowerCase(Locale.ROOT);
+            final Path file = directory.resolve(name);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+            try {
+                Files.createDirectories(directory);
+                final Path tmp = format.write(Files.createTempFile(directory, name, ".tmp"), generate());
+                return Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    private static KeyPair keyPair() throws GeneralSecurityException {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        return generator.generateKeyPair();
+    }
+
+    private static byte[] certificate(final KeyPair issuerKeyPair, final KeyPair subjectKeyPair, final BigInteger serial, final byte[] issuer,
+                                      final byte[] subject, final Instant notBefore, final Instant notAfter, final String... dnsNames)
+            throws GeneralSecurityException {
+
+        final List<byte[]> fields = new ArrayList<>();
+        fields.add(explicit(0, integer(BigInteger.valueOf(2))));
+        fields.add(integer(serial));
+        fields.add(SHA256withECDSA);
+        fields.add(issuer);
+        fields.add(sequence(time(notBefore), time(notAfter)));
+        fields.add(subject);
+        fields.add(subjectKeyPair.getPublic().getEncoded());
+        if (dnsNames.length > 0) {
+            final byte[][] names = new byte[dnsNames.length][];
+            for (int i = 0; i < dnsNames.length; i++) {
+                names[i] = der(0x82, dnsNames[i].getBytes(US_ASCII));
+            }
+            fields.add(explicit(3, sequence(sequence(oid(OidSubjectAlternativeName), der(0x04, sequence(names))))));
+        }
+        final byte[] tbsCertificate = sequence(fields.toArray(new byte[0][]));
+
+        final Signature signature = Signature.getInstance("SHA256withECDSA");
+        signature.initSign(issuerKeyPair.getPrivate());
+        signature.update(tbsCertificate);
+
+        return sequence(tbsCertificate, SHA256withECDSA, bitString(signature.sign()));
+    }
+
+    private static byte[] name(final String commonName, final String organization) {
+        return sequence(
+                set(sequence(oid(OidOrganization), der(0x0c, organization.getBytes(UTF_8)))),
+                set(sequence(oid(OidCommonName), der(0x0c, commonName.getBytes(UTF_8)))));
+    }
+
+    private static byte[] time(final Instant instant) {
+        final int year = instant.atZone(ZoneOffset.UTC).getYear();
+        return year >= 1950 && year < 2050
+                ? der(0x17, UtcTime.format(instant).getBytes(US_ASCII))
+                : der(0x18, GeneralizedTime.format(instant).getBytes(US_ASCII));
+    }
+
+    private static byte[] integer(final BigInteger value) {
+        return der(0x02, value.toByteArray());
+    }
+
+    private static byte[] bitString(final byte[] value) {
+        final byte[] content = new byte[value.length + 1];
+        System.arraycopy(value, 0, content, 1, value.length);
+        return der(0x03, content);
+    }
+
+    private static byte[] oid(final String oid) {
+        final String[] arcs = oid.split("\\.");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(Integer.parseInt(arcs[0]) * 40 + Integer.parseInt(arcs[1]));
+        for (int i = 2; i < arcs.length; i++) {
+            final long arc = Long.parseLong(arcs[i]);
+            for (int shift = (63 - Long.numberOfLeadingZeros(arc | 1)) / 7 * 7; shift > 0; shift -= 7) {
+                out.write((int) (0x80 | (arc >>> shift) & 0x7f));
+            }
+            out.write((int) (arc & 0x7f));
+        }
+        return der(0x06, out.toByteArray());
+    }
+
+    private static byte[] explicit(final int tag, final byte[] content) {
+        return der(0xa0 | tag, content);
+    }
+
+    private static byte[] sequence(final byte[]... contents) {
+        return der(0x30, contents);
+    }
+
+    private static byte[] set(final byte[]... contents) {
+        return der(0x31, contents);
+    }
+
+    private static byte[] der(final int tag, final byte[]... contents) {
+        int length = 0;
+        for (final byte[] content : contents) {
+            length += content.length;
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            final int bytes = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write(length >>> i * 8);
+            }
+        }
+        for (final byte[] content : contents) {
+            out.write(content, 0, content.length);
+        }
+        return out.toByteArray();
+    }
+
+}